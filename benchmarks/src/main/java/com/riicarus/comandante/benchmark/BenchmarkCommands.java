@@ -0,0 +1,97 @@
+package com.riicarus.comandante.benchmark;
+
+import com.riicarus.comandante.manage.CommandRegister;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Commands and command inputs shared by the benchmarks.<br/>
+ * Every benchmark builds its own CommandRegister, so the global CommandLauncher is never touched.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 16:40
+ * @since 3.1
+ */
+public class BenchmarkCommands {
+
+    /**
+     * One main command with an argument.
+     */
+    public static final String SHORT = "app echo hello";
+    /**
+     * Linked commands with options, quoted and escaped arguments.
+     */
+    public static final String LONG = "app echo 'a quoted message with an escaped \\' quote' --color red"
+            + " & app echo world -c blue & grep value & app echo 'another message' --color green";
+    /**
+     * Piped commands.
+     */
+    public static final String PIPED = "app echo hello | grep value | grep value | grep value";
+
+    private BenchmarkCommands() {
+    }
+
+    /**
+     * Get the command input of the given kind.
+     *
+     * @param kind short, long or piped
+     * @return command input
+     */
+    public static String command(String kind) {
+        switch (kind) {
+            case "short":
+                return SHORT;
+            case "long":
+                return LONG;
+            case "piped":
+                return PIPED;
+            default:
+                throw new IllegalArgumentException("Unknown command kind: " + kind);
+        }
+    }
+
+    /**
+     * Create a register with the commands used by SHORT, LONG and PIPED.
+     *
+     * @return CommandRegister
+     */
+    public static CommandRegister createRegister() {
+        CommandRegister register = new CommandRegister();
+        register.builder()
+                .main("app")
+                .main("echo")
+                .arg("message")
+                .executor((args, pipedArgs) -> "app echos");
+        register.builder()
+                .main("app")
+                .main("echo")
+                .arg("message")
+                .opt("color", "c")
+                .arg("color_name")
+                .executor((args, pipedArgs) -> "app echos message with color");
+        register.builder()
+                .main("grep")
+                .arg("value")
+                .executor((args, pipedArgs) -> args + "/" + pipedArgs);
+
+        return register;
+    }
+
+    /**
+     * Create a register with the given count of main commands named "cmd0", "cmd1", ..., they are registered in one batch.
+     *
+     * @param count command count
+     * @return CommandRegister
+     */
+    public static CommandRegister createRegister(int count) {
+        CommandRegister register = new CommandRegister();
+        register.batch(() -> {
+            for (int i = 0; i < count; i++) {
+                register.builder()
+                        .main("cmd" + i)
+                        .executor((args, pipedArgs) -> null);
+            }
+        });
+
+        return register;
+    }
+}
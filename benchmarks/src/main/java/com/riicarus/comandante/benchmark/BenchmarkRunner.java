@@ -0,0 +1,30 @@
+package com.riicarus.comandante.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Run benchmarks with the GC profiler, which reports allocation rates(gc.alloc.rate.norm) of every benchmark.<br/>
+ * The first program argument is an optional regexp to select benchmarks, all benchmarks are run by default.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 17:10
+ * @since 3.1
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
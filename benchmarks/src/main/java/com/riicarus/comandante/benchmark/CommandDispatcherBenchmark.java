@@ -0,0 +1,72 @@
+package com.riicarus.comandante.benchmark;
+
+import com.riicarus.comandante.main.CommandLauncher;
+import com.riicarus.comandante.manage.CommandDispatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [FEATURE INFO]<br/>
+ * End-to-end benchmark of dispatching a command: analyzing, executing and logging results.<br/>
+ * The log output is redirected to a discarding stream, so the console is not measured.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 17:03
+ * @since 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommandDispatcherBenchmark {
+
+    @Param({"short", "long", "piped"})
+    private String kind;
+
+    /**
+     * Plan cache capacity, 0 disables the cache so every dispatch analyzes the command.
+     */
+    @Param({"0", "1024"})
+    private int planCacheCapacity;
+
+    private CommandDispatcher dispatcher;
+    private String command;
+
+    @Setup
+    public void setup() {
+        CommandLauncher.redirectOutput(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+
+        dispatcher = new CommandDispatcher(BenchmarkCommands.createRegister(), planCacheCapacity);
+        command = BenchmarkCommands.command(kind);
+    }
+
+    @TearDown
+    public void tearDown() {
+        CommandLauncher.redirectOutput(System.out);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Object> dispatch() {
+        return dispatcher.dispatch(command);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Object> dispatchConcurrently() {
+        return dispatcher.dispatch(command);
+    }
+}
@@ -0,0 +1,82 @@
+package com.riicarus.comandante.benchmark;
+
+import com.riicarus.comandante.manage.CommandItem;
+import com.riicarus.comandante.manage.CommandRegistrySnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Benchmark of looking up command items with different count of registered items.<br/>
+ * Lookups cycle through all registered names, so the whole index is touched.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 16:58
+ * @since 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandItemManagerBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int itemCount;
+
+    private CommandRegistrySnapshot registry;
+    private String[] names;
+    /**
+     * Names which are not registered.
+     */
+    private String[] missingNames;
+    /**
+     * All names joined by blank spaces, used by region lookups.
+     */
+    private String source;
+    private int[] offsets;
+    private int idx = 0;
+
+    @Setup
+    public void setup() {
+        registry = BenchmarkCommands.createRegister(itemCount).getCommandItemManager().getSnapshot();
+
+        names = new String[itemCount];
+        missingNames = new String[itemCount];
+        offsets = new int[itemCount];
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < itemCount; i++) {
+            names[i] = "cmd" + i;
+            missingNames[i] = "missing" + i;
+            offsets[i] = builder.length();
+            builder.append(names[i]).append(' ');
+        }
+        source = builder.toString();
+    }
+
+    @Benchmark
+    public CommandItem getItem() {
+        int i = next();
+        return registry.getItem(names[i], CommandItem.ROOT);
+    }
+
+    @Benchmark
+    public CommandItem getItemByRegion() {
+        int i = next();
+        return registry.getItem(source, offsets[i], names[i].length(), CommandItem.ROOT);
+    }
+
+    @Benchmark
+    public CommandItem getMissingItem() {
+        int i = next();
+        return registry.getItem(missingNames[i], CommandItem.ROOT);
+    }
+
+    private int next() {
+        int i = idx;
+        idx = i + 1 == itemCount ? 0 : i + 1;
+        return i;
+    }
+}
@@ -0,0 +1,41 @@
+package com.riicarus.comandante.benchmark;
+
+import com.riicarus.comandante.executor.GeneratedExecutor;
+import com.riicarus.comandante.manage.GrammarAnalyzer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Benchmark of analyzing a command input to a GeneratedExecutor, including lexical analyzing.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 16:53
+ * @since 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GrammarAnalyzerBenchmark {
+
+    @Param({"short", "long", "piped"})
+    private String kind;
+
+    private GrammarAnalyzer analyzer;
+    private String command;
+
+    @Setup
+    public void setup() {
+        analyzer = new GrammarAnalyzer(BenchmarkCommands.createRegister().getCommandItemManager());
+        command = BenchmarkCommands.command(kind);
+    }
+
+    @Benchmark
+    public GeneratedExecutor analyze() {
+        return analyzer.analyze(command);
+    }
+}
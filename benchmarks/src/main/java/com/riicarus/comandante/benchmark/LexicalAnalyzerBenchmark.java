@@ -0,0 +1,57 @@
+package com.riicarus.comandante.benchmark;
+
+import com.riicarus.comandante.manage.CommandToken;
+import com.riicarus.comandante.manage.LexicalAnalyzer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Benchmark of lexical analyzing, one analyzer is reused by all invocations just like the GrammarAnalyzer does.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 16:48
+ * @since 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LexicalAnalyzerBenchmark {
+
+    @Param({"short", "long", "piped"})
+    private String kind;
+
+    private final LexicalAnalyzer analyzer = new LexicalAnalyzer();
+    private String command;
+
+    @Setup
+    public void setup() {
+        command = BenchmarkCommands.command(kind);
+    }
+
+    /**
+     * Analyze tokens to the token buffer only.
+     */
+    @Benchmark
+    public Object analyzeAll() {
+        analyzer.input(command);
+        return analyzer.analyzeAll();
+    }
+
+    /**
+     * Analyze tokens one by one, a CommandToken is created for every token.
+     */
+    @Benchmark
+    public void analyzeOne(Blackhole blackhole) {
+        analyzer.input(command);
+        CommandToken token;
+        while ((token = analyzer.analyzeOne()) != null) {
+            blackhole.consume(token);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.riicarus.comandante.benchmark;
+
+import com.riicarus.comandante.exception.CommandSyntaxException;
+import com.riicarus.comandante.executor.GeneratedExecutor;
+import com.riicarus.comandante.manage.CommandLimits;
+import com.riicarus.comandante.manage.CommandRegister;
+import com.riicarus.comandante.manage.GrammarAnalyzer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Benchmark of analyzing pathological command inputs, the time per input should grow linearly with the size.<br/>
+ * The inputs are: thousands of linked commands, a huge short option cluster and a deeply escaped quoted argument.<br/>
+ * Rejecting an oversized input by the default limits is also measured, it should not depend on the input size.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 17:58
+ * @since 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PathologicalInputBenchmark {
+
+    @Param({"links", "cluster", "escapes"})
+    private String kind;
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private GrammarAnalyzer analyzer;
+    private GrammarAnalyzer limitedAnalyzer;
+    private String command;
+
+    @Setup
+    public void setup() {
+        CommandRegister register = new CommandRegister();
+        register.builder()
+                .main("t")
+                .executor((args, pipedArgs) -> null);
+        register.builder()
+                .main("t")
+                .opt("all", "a")
+                .executor((args, pipedArgs) -> null);
+        register.builder()
+                .main("t")
+                .arg("value")
+                .executor((args, pipedArgs) -> null);
+
+        analyzer = new GrammarAnalyzer(register.getCommandItemManager(), CommandLimits.NONE);
+        limitedAnalyzer = new GrammarAnalyzer(register.getCommandItemManager(), CommandLimits.DEFAULT);
+        command = command(kind, size);
+    }
+
+    /**
+     * Create the pathological command input.
+     *
+     * @param kind links, cluster or escapes
+     * @param size count of repeated elements
+     * @return command input
+     */
+    static String command(String kind, int size) {
+        StringBuilder builder = new StringBuilder();
+        switch (kind) {
+            case "links":
+                // t & t & t ...
+                builder.append('t');
+                for (int i = 1; i < size; i++) {
+                    builder.append(" & t");
+                }
+                break;
+            case "cluster":
+                // t -aaa...
+                builder.append("t -");
+                for (int i = 0; i < size; i++) {
+                    builder.append('a');
+                }
+                break;
+            case "escapes":
+                // t '\'\'\'...'
+                builder.append("t '");
+                for (int i = 0; i < size; i++) {
+                    builder.append("\\'");
+                }
+                builder.append('\'');
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown input kind: " + kind);
+        }
+
+        return builder.toString();
+    }
+
+    @Benchmark
+    public GeneratedExecutor analyze() {
+        return analyzer.analyze(command);
+    }
+
+    /**
+     * Analyze with the default limits, large inputs are rejected.
+     */
+    @Benchmark
+    public Object analyzeWithLimits() {
+        try {
+            return limitedAnalyzer.analyze(command);
+        } catch (CommandSyntaxException e) {
+            return e;
+        }
+    }
+}
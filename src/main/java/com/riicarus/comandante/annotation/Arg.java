@@ -0,0 +1,28 @@
+package com.riicarus.comandante.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Marks a parameter of a @Command method as an arg item, arg items are registered in the order of the parameters.<br/>
+ * The parameter can be String, Path, an enum or a primitive type except char.
+ * Parameters of int, long, double, boolean, enum and Path types are registered as typed arguments which are validated when analyzing.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 23:10
+ * @since 3.1
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.CLASS)
+public @interface Arg {
+
+    /**
+     * Name of the arg item.
+     *
+     * @return name
+     */
+    String value();
+}
@@ -0,0 +1,36 @@
+package com.riicarus.comandante.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Marks a method as the executor of a command, the command is registered by the code generated by CommandProcessor.<br/>
+ * The main items of the command are the value split by spaces, the method's parameters annotated by @Arg are the following arg items,
+ * like "app echo" with a parameter @Arg("message") registers "app echo &lt;message&gt;".<br/>
+ * With @Opt, the method is the executor of the opt item following the main items.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 23:10
+ * @since 3.1
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.CLASS)
+public @interface Command {
+
+    /**
+     * Main items of the command, split by spaces.
+     *
+     * @return main items
+     */
+    String value();
+
+    /**
+     * Usage info of the command.
+     *
+     * @return usage
+     */
+    String usage() default "";
+}
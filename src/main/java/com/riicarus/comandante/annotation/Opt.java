@@ -0,0 +1,34 @@
+package com.riicarus.comandante.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Marks a @Command method as the executor of an opt item following the command's main items,
+ * like @Command("app") with @Opt(value = "color", alias = "c") registers "app --color/-c".
+ *
+ * @author Riicarus
+ * @create 2026-10-17 23:10
+ * @since 3.1
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.CLASS)
+public @interface Opt {
+
+    /**
+     * Full name of the opt item.
+     *
+     * @return name
+     */
+    String value();
+
+    /**
+     * Alias of the opt item, empty means no alias.
+     *
+     * @return alias
+     */
+    String alias() default "";
+}
@@ -51,5 +51,12 @@ public class InnerCommand {
                         (args, pipedArgs) -> CommandLauncher.register().getCommandItemManager().listAllCommandUsage(),
                         "List all registered command's and their usages"
                 );
+        CommandLauncher.register().builder()
+                .main("comandante")
+                .opt("stats", "s")
+                .executor(
+                        (args, pipedArgs) -> CommandLauncher.getStats(),
+                        "Get latencies, throughput and error counts of dispatched commands"
+                );
     }
 }
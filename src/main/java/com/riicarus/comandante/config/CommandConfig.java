@@ -33,10 +33,12 @@ public class CommandConfig {
      */
     private static String doc;
 
+    private static volatile boolean loaded = false;
+
     /**
-     * Load properties from the given CONFIG_PATH.
+     * Load properties from the given CONFIG_PATH, it's loaded when a property is read for the first time if not called.
      */
-    public static void loadConfig() {
+    public static synchronized void loadConfig() {
         Properties properties = new Properties();
 
         InputStream in = null;
@@ -63,17 +65,31 @@ public class CommandConfig {
         CommandConfig.version = properties.getProperty("version");
         CommandConfig.author = properties.getProperty("author");
         CommandConfig.doc = properties.getProperty("doc");
+        loaded = true;
+    }
+
+    private static void ensureLoaded() {
+        if (!loaded) {
+            synchronized (CommandConfig.class) {
+                if (!loaded) {
+                    loadConfig();
+                }
+            }
+        }
     }
 
     public static String getVersion() {
+        ensureLoaded();
         return version;
     }
 
     public static String getAuthor() {
+        ensureLoaded();
         return author;
     }
 
     public static String getDoc() {
+        ensureLoaded();
         return doc;
     }
 }
@@ -1,9 +1,13 @@
 package com.riicarus.comandante.exception;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * [FEATURE INFO]<br/>
  * Command not found exception, used to throw the exception during the command dispatching process in GrammarAnalyzer.<br/>
- * It's a subclass of CommandSyntaxException.
+ * It's a subclass of CommandSyntaxException.<br/>
+ * It may carry suggestions of registered items which are close to the missed one, they are also listed in the message.
  *
  * @author Riicarus
  * @create 2022-10-16 18:57
@@ -11,8 +15,29 @@ package com.riicarus.comandante.exception;
  */
 public class CommandNotFoundException extends CommandSyntaxException {
 
+    private final List<String> suggestions;
+
     public CommandNotFoundException(String message) {
-        super(message);
+        this(message, Collections.emptyList());
     }
 
+    /**
+     * Create the exception with suggestions.
+     *
+     * @param message     message
+     * @param suggestions suggested items, the closest first
+     */
+    public CommandNotFoundException(String message, List<String> suggestions) {
+        super(suggestions.isEmpty() ? message : message + " \nDid you mean: " + String.join(", ", suggestions) + "?");
+        this.suggestions = Collections.unmodifiableList(suggestions);
+    }
+
+    /**
+     * Get the suggested items which are close to the missed one.
+     *
+     * @return suggested items, the closest first, empty if there's no close item
+     */
+    public List<String> getSuggestions() {
+        return suggestions;
+    }
 }
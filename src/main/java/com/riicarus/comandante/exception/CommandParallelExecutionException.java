@@ -0,0 +1,45 @@
+package com.riicarus.comandante.exception;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Command parallel execution exception, used to throw the exceptions of the segments linked by the parallel command linker(&amp;&amp;).<br/>
+ * All segments of the parallel group are executed even if some of them failed,
+ * the results of the succeeded segments and the exceptions of the failed segments are collected in input order.<br/>
+ * The cause is the first exception, and the others are suppressed.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 19:40
+ * @since 3.1
+ */
+public class CommandParallelExecutionException extends CommandExecutionException {
+
+    /**
+     * Results of the command till the parallel group, failed segments have no results.
+     */
+    private final List<Object> results;
+    /**
+     * Exceptions of the failed segments in input order.
+     */
+    private final List<Throwable> failures;
+
+    public CommandParallelExecutionException(int segmentCount, List<Object> results, List<Throwable> failures) {
+        super(failures.size() + " of " + segmentCount + " parallel segments failed, the first one: " + failures.get(0));
+        initCause(failures.get(0));
+        for (int i = 1; i < failures.size(); i++) {
+            addSuppressed(failures.get(i));
+        }
+        this.results = Collections.unmodifiableList(results);
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    public List<Object> getResults() {
+        return results;
+    }
+
+    public List<Throwable> getFailures() {
+        return failures;
+    }
+}
@@ -12,4 +12,8 @@ public class CommandProduceException extends Exception {
 
     public CommandProduceException() {}
 
+    public CommandProduceException(String message) {
+        super(message);
+    }
+
 }
@@ -1,11 +1,11 @@
 package com.riicarus.comandante.executor;
 
-import java.util.LinkedList;
 import java.util.List;
 
 /**
  * [FEATURE INFO]<br/>
- * Analyzed command executor with arguments.
+ * Analyzed command executor with arguments.<br/>
+ * It's not changed after analyzing, so it can be cached and executed again and again.
  *
  * @author Riicarus
  * @create 2023-4-15 20:53
@@ -17,9 +17,9 @@ public class AnalyzedExecutor {
      */
     private CommandExecutor commandExecutor;
     /**
-     * Arguments is the arguments getting from command string.
+     * Arguments is the arguments getting from command string, it's unmodifiable.
      */
-    private final List<String> arguments = new LinkedList<>();
+    private ArgumentList arguments = ArgumentList.EMPTY;
     /**
      * Used in the pipeline feature. The pipeFromExecutor's result will used as the input argument of executor.
      */
@@ -41,22 +41,61 @@ public class AnalyzedExecutor {
         this.pipeFromExecutor = pipeFromExecutor;
     }
 
-    public List<String> getArguments() {
+    public ArgumentList getArguments() {
         return arguments;
     }
 
     public void setArguments(List<String> arguments) {
-        this.arguments.addAll(arguments);
+        this.arguments = ArgumentList.of(arguments);
+    }
+
+    /**
+     * Set arguments without copying, the ArgumentList is unmodifiable.
+     *
+     * @param arguments arguments analyzed from the command string
+     */
+    public void setArguments(ArgumentList arguments) {
+        this.arguments = arguments;
     }
 
     public boolean isPipe() {
         return pipeFromExecutor != null;
     }
 
+    /**
+     * Execute the executor, if it's piped, the executors in the pipeline will be executed from the first one.<br/>
+     * The pipeline is executed in a loop, so a long pipeline does not grow the stack.<br/>
+     * If all executors of the pipeline are streaming executors, they are started concurrently and the result is the last one's output CommandPipe.
+     *
+     * @return result
+     * @throws Exception command execute exception
+     */
     public Object execute() throws Exception {
-        if (isPipe()) {
-            return commandExecutor.execute(arguments, pipeFromExecutor.execute());
+        if (!isPipe()) {
+            if (commandExecutor.isStreaming()) {
+                return StreamingPipeline.start(new AnalyzedExecutor[]{this});
+            }
+            return commandExecutor.execute(arguments, null);
+        }
+
+        int length = 0;
+        for (AnalyzedExecutor executor = this; executor != null; executor = executor.pipeFromExecutor) {
+            length++;
+        }
+        AnalyzedExecutor[] pipeline = new AnalyzedExecutor[length];
+        for (AnalyzedExecutor executor = this; executor != null; executor = executor.pipeFromExecutor) {
+            pipeline[--length] = executor;
+        }
+
+        if (StreamingPipeline.isStreaming(pipeline)) {
+            return StreamingPipeline.start(pipeline);
         }
-        return commandExecutor.execute(arguments, null);
+
+        Object pipedArgs = null;
+        for (AnalyzedExecutor executor : pipeline) {
+            pipedArgs = executor.commandExecutor.execute(executor.arguments, pipedArgs);
+        }
+
+        return pipedArgs;
     }
 }
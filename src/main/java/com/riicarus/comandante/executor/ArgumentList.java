@@ -0,0 +1,254 @@
+package com.riicarus.comandante.executor;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * [FEATURE INFO]<br/>
+ * The arguments of an analyzed executor, which are regions of the command input string.<br/>
+ * An argument string is only created when the executor reads it, and it will be reused by the following reads.<br/>
+ * Typed arguments are converted when analyzing, values of primitive types are stored in a long array and read by getInt(), getLong()...
+ * without boxing, other values are read by getValue().<br/>
+ * The list is unmodifiable.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 15:36
+ * @since 3.1
+ */
+public class ArgumentList extends AbstractList<String> implements RandomAccess {
+
+    public static final ArgumentList EMPTY = new ArgumentList("", new int[0], 0);
+
+    /**
+     * The flag in the length of a region, means the region contains escape identifiers which need to be removed.
+     */
+    public static final int ESCAPED = 1 << 31;
+    private static final char ESCAPE_IDENTIFIER = '\\';
+
+    /**
+     * The command input string.
+     */
+    private final String source;
+    /**
+     * Regions of arguments in the source, every argument takes two elements: offset and length(with the ESCAPED flag).
+     */
+    private final int[] regions;
+    /**
+     * Argument count.
+     */
+    private final int size;
+    /**
+     * Created argument strings.
+     */
+    private final String[] values;
+    /**
+     * Types of arguments, null if no argument is typed, a null element means the argument is a string.
+     */
+    private final CommandArgumentType<?>[] types;
+    /**
+     * Converted values of arguments with primitive types, see CommandArgumentType.convertToBits().
+     */
+    private final long[] bits;
+    /**
+     * Converted values of arguments with object types.
+     */
+    private final Object[] objects;
+
+    /**
+     * Create an argument list, the regions array is held by the list and should not be changed later.
+     *
+     * @param source  the command input string
+     * @param regions regions of arguments in the source, every argument takes two elements: offset and length(with the ESCAPED flag)
+     * @param size    argument count
+     */
+    public ArgumentList(String source, int[] regions, int size) {
+        this(source, regions, size, null, null, null);
+    }
+
+    /**
+     * Create an argument list with converted values, all arrays are held by the list and should not be changed later.
+     *
+     * @param source  the command input string
+     * @param regions regions of arguments in the source, every argument takes two elements: offset and length(with the ESCAPED flag)
+     * @param size    argument count
+     * @param types   types of arguments, a null element means the argument is a string
+     * @param bits    converted values of arguments with primitive types
+     * @param objects converted values of arguments with object types
+     */
+    public ArgumentList(String source, int[] regions, int size, CommandArgumentType<?>[] types, long[] bits, Object[] objects) {
+        this.source = source;
+        this.regions = regions;
+        this.size = size;
+        this.values = new String[size];
+        this.types = types;
+        this.bits = bits;
+        this.objects = objects;
+    }
+
+    /**
+     * Create an argument list of strings.
+     *
+     * @param arguments arguments
+     * @return argument list
+     */
+    public static ArgumentList of(List<String> arguments) {
+        ArgumentList list = new ArgumentList("", null, arguments.size());
+        for (int i = 0; i < list.size; i++) {
+            list.values[i] = arguments.get(i);
+        }
+
+        return list;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        String value = values[index];
+        if (value == null) {
+            value = region(source, regions[index << 1], regions[(index << 1) + 1]);
+            values[index] = value;
+        }
+
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the type of an argument.
+     *
+     * @param index index of the argument
+     * @return type, STRING if the argument is not typed
+     */
+    public CommandArgumentType<?> getType(int index) {
+        CommandArgumentType<?> type = type(index);
+        return type == null ? CommandArgumentType.STRING : type;
+    }
+
+    /**
+     * Get an int argument, it's parsed from the string if it's not typed as int.
+     *
+     * @param index index of the argument
+     * @return value
+     * @throws NumberFormatException if the argument is not typed and not an int
+     */
+    public int getInt(int index) throws NumberFormatException {
+        CommandArgumentType<?> type = type(index);
+        if (type == CommandArgumentType.INT) {
+            return (int) bits[index];
+        }
+
+        return Integer.parseInt(get(index));
+    }
+
+    /**
+     * Get a long argument, it's parsed from the string if it's not typed as int or long.
+     *
+     * @param index index of the argument
+     * @return value
+     * @throws NumberFormatException if the argument is not typed and not a long
+     */
+    public long getLong(int index) throws NumberFormatException {
+        CommandArgumentType<?> type = type(index);
+        if (type == CommandArgumentType.LONG || type == CommandArgumentType.INT) {
+            return bits[index];
+        }
+
+        return Long.parseLong(get(index));
+    }
+
+    /**
+     * Get a double argument, it's parsed from the string if it's not typed as double, int or long.
+     *
+     * @param index index of the argument
+     * @return value
+     * @throws NumberFormatException if the argument is not typed and not a double
+     */
+    public double getDouble(int index) throws NumberFormatException {
+        CommandArgumentType<?> type = type(index);
+        if (type == CommandArgumentType.DOUBLE) {
+            return Double.longBitsToDouble(bits[index]);
+        } else if (type == CommandArgumentType.LONG || type == CommandArgumentType.INT) {
+            return bits[index];
+        }
+
+        return Double.parseDouble(get(index));
+    }
+
+    /**
+     * Get a boolean argument, it's parsed from the string if it's not typed as boolean.
+     *
+     * @param index index of the argument
+     * @return value
+     * @throws IllegalArgumentException if the argument is not typed and not "true" or "false"
+     */
+    public boolean getBoolean(int index) throws IllegalArgumentException {
+        CommandArgumentType<?> type = type(index);
+        if (type == CommandArgumentType.BOOLEAN) {
+            return bits[index] != 0;
+        }
+
+        return CommandArgumentType.BOOLEAN.convertToBits(get(index)) != 0;
+    }
+
+    /**
+     * Get the converted value of an argument, values of primitive types are boxed.
+     *
+     * @param index index of the argument
+     * @param <T>   value type
+     * @return value, the string if the argument is not typed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(int index) {
+        CommandArgumentType<?> type = type(index);
+        if (type == null) {
+            return (T) get(index);
+        }
+
+        return (T) (type.isPrimitive() ? type.box(bits[index]) : objects[index]);
+    }
+
+    private CommandArgumentType<?> type(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        return types == null ? null : types[index];
+    }
+
+    /**
+     * Create the string of a region, escape identifiers will be removed if the region has the ESCAPED flag.
+     *
+     * @param source the command input string
+     * @param offset offset of the region
+     * @param length length of the region, may have the ESCAPED flag
+     * @return region string
+     */
+    public static String region(String source, int offset, int length) {
+        if ((length & ESCAPED) == 0) {
+            return source.substring(offset, offset + length);
+        }
+
+        int end = offset + (length & ~ESCAPED);
+        StringBuilder builder = new StringBuilder(end - offset);
+        // copy the runs between escape identifiers in bulk
+        int runStart = offset;
+        int i = source.indexOf(ESCAPE_IDENTIFIER, offset);
+        while (i >= 0 && i + 1 < end) {
+            builder.append(source, runStart, i);
+            // the escaped character is always kept, it starts the next run
+            runStart = i + 1;
+            i = source.indexOf(ESCAPE_IDENTIFIER, i + 2);
+        }
+        builder.append(source, runStart, end);
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,194 @@
+package com.riicarus.comandante.executor;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Type of an argument item, set when the argument is registered by CommandBuilder.arg(String, CommandArgumentType).<br/>
+ * Arguments are converted when the command is analyzed, so an invalid argument is a syntax error and the executor never parses it.
+ * Analyzed arguments are cached with the analyzed command, a command executed again is not converted again.<br/>
+ * Values of int, long, double and boolean types are stored as primitives in ArgumentList, read them by getInt(), getLong()... without boxing.<br/>
+ * <br/>
+ * Every type has a unique name, types are found by their names when loading a registry file, see CommandRegistryFile.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 23:50
+ * @since 3.1
+ */
+public final class CommandArgumentType<T> {
+
+    private static final Map<String, CommandArgumentType<?>> TYPES = new ConcurrentHashMap<>();
+
+    /**
+     * Storage kinds of the converted values.
+     */
+    static final int KIND_OBJECT = 0;
+    static final int KIND_INT = 1;
+    static final int KIND_LONG = 2;
+    static final int KIND_DOUBLE = 3;
+    static final int KIND_BOOLEAN = 4;
+
+    public static final CommandArgumentType<String> STRING = new CommandArgumentType<>("string", KIND_OBJECT, value -> value);
+    public static final CommandArgumentType<Integer> INT = new CommandArgumentType<>("int", KIND_INT, null);
+    public static final CommandArgumentType<Long> LONG = new CommandArgumentType<>("long", KIND_LONG, null);
+    public static final CommandArgumentType<Double> DOUBLE = new CommandArgumentType<>("double", KIND_DOUBLE, null);
+    /**
+     * Only "true" and "false" are valid, ignoring case.
+     */
+    public static final CommandArgumentType<Boolean> BOOLEAN = new CommandArgumentType<>("boolean", KIND_BOOLEAN, null);
+    public static final CommandArgumentType<Path> PATH = new CommandArgumentType<>("path", KIND_OBJECT, Paths::get);
+
+    private final String name;
+    private final int kind;
+    private final Function<String, ? extends T> converter;
+
+    private CommandArgumentType(String name, int kind, Function<String, ? extends T> converter) {
+        if (TYPES.putIfAbsent(name, this) != null) {
+            throw new IllegalArgumentException("Argument type is already defined: " + name);
+        }
+
+        this.name = name;
+        this.kind = kind;
+        this.converter = converter;
+    }
+
+    /**
+     * Define a custom argument type.
+     *
+     * @param name      unique name of the type
+     * @param converter converts an argument, throws IllegalArgumentException if the argument is invalid
+     * @param <T>       value type
+     * @return argument type
+     * @throws IllegalArgumentException if the name is used by another type
+     */
+    public static <T> CommandArgumentType<T> of(String name, Function<String, ? extends T> converter) throws IllegalArgumentException {
+        return new CommandArgumentType<>(name, KIND_OBJECT, converter);
+    }
+
+    /**
+     * Get the argument type of an enum, the type is named by the enum class name and created only once.<br/>
+     * An argument matches a constant by its name, ignoring case.
+     *
+     * @param enumClass enum class
+     * @param <E>       enum type
+     * @return argument type
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> CommandArgumentType<E> enumOf(Class<E> enumClass) {
+        CommandArgumentType<?> type = TYPES.get(enumClass.getName());
+        if (type != null) {
+            return (CommandArgumentType<E>) type;
+        }
+
+        synchronized (TYPES) {
+            type = TYPES.get(enumClass.getName());
+            if (type != null) {
+                return (CommandArgumentType<E>) type;
+            }
+            E[] constants = enumClass.getEnumConstants();
+            return new CommandArgumentType<>(enumClass.getName(), KIND_OBJECT, value -> {
+                for (E constant : constants) {
+                    if (constant.name().equalsIgnoreCase(value)) {
+                        return constant;
+                    }
+                }
+                throw new IllegalArgumentException("No constant " + value + " in " + enumClass.getSimpleName());
+            });
+        }
+    }
+
+    /**
+     * Find a defined type by its name.
+     *
+     * @param name name of the type
+     * @return type, null if not defined
+     */
+    public static CommandArgumentType<?> forName(String name) {
+        return TYPES.get(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    int getKind() {
+        return kind;
+    }
+
+    /**
+     * Judge if the converted values are stored as primitives, they are converted by convertToBits(), otherwise by convert().
+     *
+     * @return is primitive
+     */
+    public boolean isPrimitive() {
+        return kind != KIND_OBJECT;
+    }
+
+    /**
+     * Convert an argument to an object, only for types stored as objects.
+     *
+     * @param value argument
+     * @return converted value
+     * @throws IllegalArgumentException if the argument is invalid
+     */
+    public T convert(String value) throws IllegalArgumentException {
+        return converter.apply(value);
+    }
+
+    /**
+     * Convert an argument to the bits of a primitive, only for types stored as primitives.
+     *
+     * @param value argument
+     * @return int or long value, bits of double value, 1 or 0 for boolean value
+     * @throws IllegalArgumentException if the argument is invalid
+     */
+    public long convertToBits(String value) throws IllegalArgumentException {
+        switch (kind) {
+            case KIND_INT:
+                return Integer.parseInt(value);
+            case KIND_LONG:
+                return Long.parseLong(value);
+            case KIND_DOUBLE:
+                return Double.doubleToRawLongBits(Double.parseDouble(value));
+            case KIND_BOOLEAN:
+                if ("true".equalsIgnoreCase(value)) {
+                    return 1;
+                } else if ("false".equalsIgnoreCase(value)) {
+                    return 0;
+                }
+                throw new IllegalArgumentException("Not a boolean: " + value);
+            default:
+                throw new IllegalStateException("Argument type " + name + " is not stored as primitive.");
+        }
+    }
+
+    /**
+     * Box the primitive bits converted by this type.
+     *
+     * @param bits primitive bits
+     * @return boxed value
+     */
+    Object box(long bits) {
+        switch (kind) {
+            case KIND_INT:
+                return (int) bits;
+            case KIND_LONG:
+                return bits;
+            case KIND_DOUBLE:
+                return Double.longBitsToDouble(bits);
+            case KIND_BOOLEAN:
+                return bits != 0;
+            default:
+                throw new IllegalStateException("Argument type " + name + " is not stored as primitive.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
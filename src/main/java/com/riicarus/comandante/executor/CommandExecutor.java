@@ -1,11 +1,11 @@
 package com.riicarus.comandante.executor;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import com.riicarus.comandante.metrics.ExecutorMetrics;
 
 /**
  * [FEATURE INFO]<br/>
  * CommandExecutor is used to define the executable item's execute() method and some related fields.<br/>
- * It also maintains its use count and usage info for extension. <br/>
+ * It also maintains its usage info and metrics(use count, error count and execute latency) for extension. <br/>
  *
  * @author Riicarus
  * @create 2022-10-15 0:09
@@ -13,9 +13,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class CommandExecutor {
     /**
-     * Executor's invoke count
+     * Executor's invoke count, error count and execute latency.
      */
-    private final AtomicInteger useCount = new AtomicInteger(0);
+    private final ExecutorMetrics metrics = new ExecutorMetrics();
     /**
      * The usage info of this executor.
      */
@@ -43,8 +43,38 @@ public class CommandExecutor {
      * @throws Exception command execute exception
      */
     public final Object execute(Object args, Object pipedArgs) throws Exception {
-        useCount.incrementAndGet();
-        return executor.execute(args, pipedArgs);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = executor.execute(args, pipedArgs);
+            failed = false;
+            return result;
+        } finally {
+            metrics.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Streaming execute method, only available when the executor is a StreamingExecutable.
+     *
+     * @param args   command's arguments
+     * @param input  the pipe to read elements from, null if it's the first executor of the pipeline
+     * @param output the pipe to write elements to
+     * @throws Exception command execute exception
+     */
+    public final void execute(Object args, CommandPipe input, CommandPipe output) throws Exception {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            ((StreamingExecutable) executor).execute(args, input, output);
+            failed = false;
+        } finally {
+            metrics.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    public boolean isStreaming() {
+        return executor instanceof StreamingExecutable;
     }
 
     public Executable getExecutor() {
@@ -56,7 +86,11 @@ public class CommandExecutor {
     }
 
     public int getUseCount() {
-        return useCount.get();
+        return (int) metrics.getUseCount();
+    }
+
+    public ExecutorMetrics getMetrics() {
+        return metrics;
     }
 
     public String getUsage() {
@@ -0,0 +1,250 @@
+package com.riicarus.comandante.executor;
+
+import com.riicarus.comandante.exception.CommandExecutionException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * [FEATURE INFO]<br/>
+ * A bounded pipe between two streaming executors, one executor writes elements and the other one reads them.<br/>
+ * The writer blocks when the pipe is full, so a fast executor can not run ahead of a slow one.<br/>
+ * <br/>
+ * The writer closes the pipe when it's done, or fails the pipe with its exception, which will be thrown to the reader after all elements.<br/>
+ * The reader cancels the pipe when it stops reading, then the writer's next write will throw an exception to stop it.<br/>
+ * The pipe is an Iterable for the reader, it can only be iterated once.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 18:52
+ * @since 3.1
+ */
+public class CommandPipe implements Iterable<Object> {
+
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final int UNBOUNDED = 0;
+    /**
+     * Max count of elements read at once by the iterator.
+     */
+    private static final int ITERATOR_BATCH_SIZE = 64;
+
+    /**
+     * The end of the elements.
+     */
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> queue;
+    /**
+     * The exception of the writer.
+     */
+    private volatile Throwable failure;
+    /**
+     * Is the reader stopped reading.
+     */
+    private volatile boolean cancelled = false;
+    /**
+     * Is the end read by the reader, only used by the reader.
+     */
+    private boolean ended = false;
+
+    public CommandPipe() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a pipe with the given capacity.
+     *
+     * @param capacity max count of elements in the pipe, not positive value means unbounded
+     */
+    public CommandPipe(int capacity) {
+        this.queue = capacity > 0 ? new ArrayBlockingQueue<>(capacity) : new LinkedBlockingQueue<>();
+    }
+
+    /**
+     * Create a closed pipe with the given elements.<br/>
+     * If the value is an Iterable, its elements are put to the pipe, otherwise the value is the only element.
+     *
+     * @param value elements
+     * @return closed pipe
+     */
+    public static CommandPipe of(Object value) {
+        CommandPipe pipe = new CommandPipe(UNBOUNDED);
+        if (value instanceof Iterable) {
+            for (Object element : (Iterable<?>) value) {
+                pipe.queue.add(element);
+            }
+        } else {
+            pipe.queue.add(value);
+        }
+        pipe.queue.add(END);
+
+        return pipe;
+    }
+
+    /**
+     * Write an element, it blocks when the pipe is full.
+     *
+     * @param element element, can not be null
+     * @throws InterruptedException      if interrupted while waiting
+     * @throws CommandExecutionException runtime exception, if the element is null or the reader cancelled the pipe
+     */
+    public void put(Object element) throws InterruptedException, CommandExecutionException {
+        // not Asserts.notNull(), it's a hot path and the exception should not be created for every element
+        if (element == null) {
+            throw new CommandExecutionException("Piped element can not be null.");
+        }
+        if (cancelled) {
+            throw new CommandExecutionException("Pipe is cancelled by the reader.");
+        }
+        queue.put(element);
+    }
+
+    /**
+     * Read the next element, it blocks when the pipe is empty.
+     *
+     * @return next element, null if all elements are read
+     * @throws InterruptedException      if interrupted while waiting
+     * @throws CommandExecutionException runtime exception, if the writer failed
+     */
+    public Object take() throws InterruptedException, CommandExecutionException {
+        if (ended) {
+            return null;
+        }
+
+        Object element = queue.take();
+        if (element == END) {
+            ended = true;
+            if (failure != null) {
+                throw new CommandExecutionException(failure);
+            }
+            return null;
+        }
+
+        return element;
+    }
+
+    /**
+     * Read available elements to the list, it blocks only when the pipe is empty.
+     *
+     * @param elements the list to add elements to
+     * @param max      max count of elements to read
+     * @return count of read elements, 0 if all elements are read
+     * @throws InterruptedException      if interrupted while waiting
+     * @throws CommandExecutionException runtime exception, if the writer failed
+     */
+    public int take(List<Object> elements, int max) throws InterruptedException, CommandExecutionException {
+        Object first = take();
+        if (first == null) {
+            return 0;
+        }
+        elements.add(first);
+
+        int from = elements.size();
+        queue.drainTo(elements, max - 1);
+        int last = elements.size() - 1;
+        if (last >= from && elements.get(last) == END) {
+            elements.remove(last);
+            // the end is read, so the next take() will handle it
+            queue.add(END);
+        }
+
+        return elements.size() - from + 1;
+    }
+
+    /**
+     * Read all elements to a list.
+     *
+     * @return elements
+     * @throws InterruptedException      if interrupted while waiting
+     * @throws CommandExecutionException runtime exception, if the writer failed
+     */
+    public List<Object> drain() throws InterruptedException, CommandExecutionException {
+        List<Object> elements = new ArrayList<>();
+        Object element;
+        while ((element = take()) != null) {
+            elements.add(element);
+        }
+
+        return elements;
+    }
+
+    /**
+     * Close the pipe by the writer, means no more elements.<br/>
+     * If the reader cancelled the pipe, nothing will be read, so the end is not written.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void close() throws InterruptedException {
+        if (!cancelled) {
+            queue.put(END);
+        }
+    }
+
+    /**
+     * Close the pipe by the writer with its exception.
+     *
+     * @param e exception of the writer
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void fail(Throwable e) throws InterruptedException {
+        this.failure = e;
+        close();
+    }
+
+    /**
+     * Cancel the pipe by the reader, the waiting elements are dropped.
+     */
+    public void cancel() {
+        cancelled = true;
+        queue.clear();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Get the iterator to read elements, available elements are read in batch.
+     *
+     * @return iterator
+     */
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<Object>() {
+            private final List<Object> buffer = new ArrayList<>(ITERATOR_BATCH_SIZE);
+            private int idx = 0;
+
+            @Override
+            public boolean hasNext() {
+                if (idx == buffer.size()) {
+                    buffer.clear();
+                    idx = 0;
+                    try {
+                        take(buffer, ITERATOR_BATCH_SIZE);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CommandExecutionException(e);
+                    }
+                }
+                return idx < buffer.size();
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return buffer.get(idx++);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "CommandPipe{size=" + queue.size() + ", cancelled=" + cancelled + "}";
+    }
+}
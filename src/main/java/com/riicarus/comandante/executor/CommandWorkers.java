@@ -0,0 +1,122 @@
+package com.riicarus.comandante.executor;
+
+import com.riicarus.comandante.exception.CommandLoadException;
+import com.riicarus.util.asserts.Asserts;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Shared workers of executors, used by streaming pipelines and parallel linked segments.<br/>
+ * Workers are daemon threads, so running tasks never block the JVM from exiting, and idle workers will be terminated after 60 seconds.<br/>
+ * Streaming pipelines use a cached pool, so a stage waiting for other stages can not starve them,
+ * a pipeline uses one worker per stage, so pipelines longer than maxPipelineStages are rejected,
+ * and a pipeline is rejected when its stages would make the running stages of all pipelines exceed maxRunningStages.<br/>
+ * Parallel linked segments use a bounded pool, which has one worker per processor by default and can be replaced by setSegmentWorkers(),
+ * at most maxParallelSegments segments of one parallel group run at once.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 19:44
+ * @since 3.1
+ */
+public class CommandWorkers {
+
+    private static final AtomicInteger WORKER_COUNT = new AtomicInteger(0);
+    private static final ThreadFactory WORKER_FACTORY = r -> {
+        Thread thread = new Thread(r, "comandante-worker-" + WORKER_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    static final ExecutorService WORKERS = Executors.newCachedThreadPool(WORKER_FACTORY);
+
+    private static volatile Executor segmentWorkers = newSegmentWorkers(Runtime.getRuntime().availableProcessors());
+    private static volatile int maxParallelSegments = Runtime.getRuntime().availableProcessors();
+    /**
+     * Default max count of stages of a streaming pipeline.
+     */
+    public static final int DEFAULT_MAX_PIPELINE_STAGES = 64;
+    private static volatile int maxPipelineStages = DEFAULT_MAX_PIPELINE_STAGES;
+    /**
+     * Default max count of running stages of all streaming pipelines.
+     */
+    public static final int DEFAULT_MAX_RUNNING_STAGES = 1024;
+    /**
+     * Permits of running stages, a stage holds one permit until it returns.
+     */
+    private static volatile Semaphore runningStages = new Semaphore(DEFAULT_MAX_RUNNING_STAGES);
+
+    private CommandWorkers() {
+    }
+
+    private static Executor newSegmentWorkers(int size) {
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(size, size, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), WORKER_FACTORY);
+        workers.allowCoreThreadTimeOut(true);
+        return workers;
+    }
+
+    /**
+     * Set the workers of parallel linked segments.<br/>
+     * The caller of a parallel group runs the segments which are not started by the workers itself,
+     * so a bounded or saturated executor only limits the concurrency, it never deadlocks the group.
+     *
+     * @param workers             the executor to run segments, owned by the caller
+     * @param maxParallelSegments max count of segments of one parallel group running at once, including the caller
+     * @throws CommandLoadException runtime exception, if workers is null or maxParallelSegments is not positive
+     */
+    public static void setSegmentWorkers(Executor workers, int maxParallelSegments) throws CommandLoadException {
+        Asserts.notNull(workers, new CommandLoadException("Segment workers can not be null."));
+        Asserts.isTrue(maxParallelSegments > 0, new CommandLoadException("Max parallel segments must be positive."));
+
+        CommandWorkers.segmentWorkers = workers;
+        CommandWorkers.maxParallelSegments = maxParallelSegments;
+    }
+
+    /**
+     * Set the max count of stages of a streaming pipeline, every stage runs on its own worker while the pipeline is running.
+     *
+     * @param maxPipelineStages max count of stages
+     * @throws CommandLoadException runtime exception, if maxPipelineStages is not positive
+     */
+    public static void setMaxPipelineStages(int maxPipelineStages) throws CommandLoadException {
+        Asserts.isTrue(maxPipelineStages > 0, new CommandLoadException("Max pipeline stages must be positive."));
+
+        CommandWorkers.maxPipelineStages = maxPipelineStages;
+    }
+
+    /**
+     * Set the max count of running stages of all streaming pipelines, stages which are already running are not limited by the new value.
+     *
+     * @param maxRunningStages max count of running stages
+     * @throws CommandLoadException runtime exception, if maxRunningStages is not positive
+     */
+    public static void setMaxRunningStages(int maxRunningStages) throws CommandLoadException {
+        Asserts.isTrue(maxRunningStages > 0, new CommandLoadException("Max running stages must be positive."));
+
+        CommandWorkers.runningStages = new Semaphore(maxRunningStages);
+    }
+
+    static Semaphore getRunningStages() {
+        return runningStages;
+    }
+
+    static int getMaxPipelineStages() {
+        return maxPipelineStages;
+    }
+
+    static Executor getSegmentWorkers() {
+        return segmentWorkers;
+    }
+
+    static int getMaxParallelSegments() {
+        return maxParallelSegments;
+    }
+}
@@ -1,8 +1,23 @@
 package com.riicarus.comandante.executor;
 
+import com.riicarus.comandante.exception.CommandExecutionException;
+import com.riicarus.comandante.exception.CommandParallelExecutionException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * [FEATURE INFO]<br/>
- * The executor generated by grammar analyzer provided to command dispatcher to execute.
+ * The executor generated by grammar analyzer provided to command dispatcher to execute.<br/>
+ * The analyzed executors are grouped by segments, which are linked by the command linker(&amp;) in the command.<br/>
+ * Segments linked by the parallel command linker(&amp;&amp;) form a parallel group, which is executed concurrently.<br/>
+ * It's immutable and holds no execution state, so one generated executor can be cached and executed concurrently.
  *
  * @author Riicarus
  * @create 2023-4-17 22:56
@@ -10,19 +25,256 @@ package com.riicarus.comandante.executor;
  */
 public class GeneratedExecutor {
     /**
-     * Used to provide simple lambda expression for execute the command's analyzed executors.
+     * Segments of the command, each segment contains the analyzed executors between two command linkers, in input order.
+     */
+    private final List<List<AnalyzedExecutor>> segments;
+    /**
+     * Is the segment linked to the previous one by the parallel command linker(&amp;&amp;).
+     */
+    private final boolean[] parallelLinked;
+
+    public GeneratedExecutor(List<List<AnalyzedExecutor>> segments) {
+        this(segments, new boolean[segments.size()]);
+    }
+
+    /**
+     * Create a generated executor with parallel groups.
+     *
+     * @param segments       segments of the command in input order
+     * @param parallelLinked is every segment linked to the previous one by the parallel command linker(&amp;&amp;)
+     */
+    public GeneratedExecutor(List<List<AnalyzedExecutor>> segments, boolean[] parallelLinked) {
+        this.segments = Collections.unmodifiableList(segments);
+        this.parallelLinked = parallelLinked;
+    }
+
+    /**
+     * Execute all segments one by one in the current thread, segments of a parallel group are executed concurrently by the segment workers.<br/>
+     * If a segment of a parallel group failed, the other segments of the group are still executed, then a CommandParallelExecutionException is thrown.<br/>
+     * If the command fails, the output CommandPipes of the executed streaming pipelines are cancelled, so their stages stop instead of blocking forever.
+     *
+     * @return results of all analyzed executors in input order
+     * @throws Exception command execute exception
+     */
+    public List<Object> execute() throws Exception {
+        checkExecutable();
+
+        List<Object> results = new ArrayList<>();
+        try {
+            int from = 0;
+            while (from < segments.size()) {
+                int to = from + 1;
+                while (to < segments.size() && parallelLinked[to]) {
+                    to++;
+                }
+
+                if (to - from == 1) {
+                    executeSegment(segments.get(from), results);
+                } else {
+                    executeParallel(from, to, results);
+                }
+                from = to;
+            }
+        } catch (Throwable e) {
+            cancelPipes(results);
+            throw e;
+        }
+
+        return results;
+    }
+
+    /**
+     * Execute segments of a parallel group concurrently by the segment workers, and wait for all of them.<br/>
+     * At most maxParallelSegments segments run at once, the next segment is handed to the workers when a previous one is finished.
+     * The current thread runs the segments which are not started by the workers yet itself, instead of waiting for them.
+     *
+     * @param from    index of the first segment of the group, inclusive
+     * @param to      index of the last segment of the group, exclusive
+     * @param results results of the command
+     * @throws CommandParallelExecutionException runtime exception, if any segment failed
+     */
+    private void executeParallel(int from, int to, List<Object> results) throws CommandParallelExecutionException {
+        Executor workers = CommandWorkers.getSegmentWorkers();
+        int maxParallel = CommandWorkers.getMaxParallelSegments();
+
+        List<SegmentTask> tasks = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            tasks.add(new SegmentTask(segments.get(i)));
+        }
+        // the current thread runs the first segment, so the workers run the next (maxParallel - 1) ones
+        for (int i = 1; i < maxParallel && i < tasks.size(); i++) {
+            tasks.get(i).submit(workers);
+        }
+
+        List<Throwable> failures = null;
+        for (int i = 0; i < tasks.size(); i++) {
+            SegmentTask task = tasks.get(i);
+            task.run();
+            try {
+                results.addAll(task.future.join());
+            } catch (CompletionException e) {
+                if (failures == null) {
+                    failures = new ArrayList<>();
+                }
+                failures.add(e.getCause());
+            }
+
+            if (i + maxParallel < tasks.size()) {
+                tasks.get(i + maxParallel).submit(workers);
+            }
+        }
+
+        if (failures != null) {
+            throw new CommandParallelExecutionException(to - from, results, failures);
+        }
+    }
+
+    /**
+     * Execute every segment as a task of the given executor, segments will not keep their execution order.<br/>
+     * The analyzed executors in one segment are still executed one by one, and the results are still in input order.<br/>
+     * If any segment fails, the output CommandPipes of the other segments are cancelled.
+     *
+     * @param executor the executor to run segments
+     * @return the future of the results of all analyzed executors in input order
+     * @throws CommandExecutionException runtime exception, if there's no executable command
+     */
+    public CompletableFuture<List<Object>> execute(Executor executor) throws CommandExecutionException {
+        checkExecutable();
+
+        final List<CompletableFuture<List<Object>>> futures = new ArrayList<>(segments.size());
+        for (List<AnalyzedExecutor> segment : segments) {
+            futures.add(supplySegment(segment, executor));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).whenComplete((v, e) -> {
+            if (e == null) {
+                return;
+            }
+            for (CompletableFuture<List<Object>> future : futures) {
+                if (!future.isCompletedExceptionally()) {
+                    cancelPipes(future.join());
+                }
+            }
+        }).thenApply(v -> {
+            List<Object> results = new ArrayList<>();
+            for (CompletableFuture<List<Object>> future : futures) {
+                results.addAll(future.join());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Execute the segment as a task of the executor.
+     *
+     * @param segment  segment to execute
+     * @param executor the executor to run the segment
+     * @return the future of the segment's results
      */
-    private final GeneratedExecutable exe;
+    private CompletableFuture<List<Object>> supplySegment(final List<AnalyzedExecutor> segment, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Object> results = new ArrayList<>(segment.size());
+            try {
+                executeSegment(segment, results);
+            } catch (Exception e) {
+                throw new CompletionException(new CommandExecutionException(e));
+            }
+            return results;
+        }, executor);
+    }
 
-    public GeneratedExecutor(GeneratedExecutable exe) {
-        this.exe = exe;
+    private void checkExecutable() throws CommandExecutionException {
+        if (segments.isEmpty()) {
+            throw new CommandExecutionException("No executable command found.");
+        }
     }
 
-    public void execute() throws Exception {
-        this.exe.execute();
+    /**
+     * Execute the analyzed executors of a segment one by one, if one fails, the output CommandPipes of the segment are cancelled.
+     *
+     * @param segment segment to execute
+     * @param results the list to add results to
+     * @throws Exception command execute exception
+     */
+    private void executeSegment(List<AnalyzedExecutor> segment, List<Object> results) throws Exception {
+        int from = results.size();
+        try {
+            for (AnalyzedExecutor executor : segment) {
+                results.add(executor.execute());
+            }
+        } catch (Throwable e) {
+            cancelPipes(results.subList(from, results.size()));
+            throw e;
+        }
+    }
+
+    /**
+     * Cancel the output CommandPipes of streaming pipelines in the results, which will never be read.
+     *
+     * @param results results of analyzed executors
+     */
+    private static void cancelPipes(List<Object> results) {
+        for (Object result : results) {
+            if (result instanceof CommandPipe) {
+                ((CommandPipe) result).cancel();
+            }
+        }
     }
 
-    public interface GeneratedExecutable {
-        void execute() throws Exception;
+    /**
+     * A segment of a parallel group, which is run once by either a worker or the thread executing the group.
+     */
+    private class SegmentTask implements Runnable {
+
+        private final List<AnalyzedExecutor> segment;
+        private final AtomicBoolean started = new AtomicBoolean(false);
+        private final CompletableFuture<List<Object>> future = new CompletableFuture<>();
+
+        SegmentTask(List<AnalyzedExecutor> segment) {
+            this.segment = segment;
+        }
+
+        /**
+         * Hand the segment to the workers, if they reject it, it will be run by the thread executing the group.
+         *
+         * @param workers segment workers
+         */
+        void submit(Executor workers) {
+            try {
+                workers.execute(this);
+            } catch (RejectedExecutionException ignored) {
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+
+            List<Object> results = new ArrayList<>(segment.size());
+            try {
+                executeSegment(segment, results);
+                future.complete(results);
+            } catch (Exception e) {
+                future.completeExceptionally(new CommandExecutionException(e));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    public List<List<AnalyzedExecutor>> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Judge if the segment is linked to the previous one by the parallel command linker(&amp;&amp;).
+     *
+     * @param index index of the segment
+     * @return is parallel linked
+     */
+    public boolean isParallelLinked(int index) {
+        return parallelLinked[index];
     }
 }
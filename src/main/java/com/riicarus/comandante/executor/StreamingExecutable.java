@@ -0,0 +1,47 @@
+package com.riicarus.comandante.executor;
+
+/**
+ * [FEATURE INFO]<br/>
+ * The streaming executable interface.<br/>
+ * A streaming executor reads elements from the input pipe and writes elements to the output pipe,
+ * so it can handle results which are too large to be materialized.<br/>
+ * If every executor of a pipeline is a streaming executor, all of them will run concurrently on separate workers,
+ * and elements are exchanged through bounded pipes, the result of the pipeline is the last executor's output pipe.<br/>
+ * Otherwise, the streaming executor is executed as a common executor by execute(args, pipedArgs).
+ *
+ * @author Riicarus
+ * @create 2026-10-17 18:45
+ * @since 3.1
+ */
+public interface StreamingExecutable extends Executable {
+
+    /**
+     * Execute method which exchanges elements through pipes.<br/>
+     * The output pipe is closed after the method returns, so it should not be closed by the method.
+     *
+     * @param args   method arguments
+     * @param input  the pipe to read elements from the previous executor of the pipeline, null if it's the first one
+     * @param output the pipe to write elements to the next executor of the pipeline
+     * @throws Exception command execute exception
+     */
+    void execute(Object args, CommandPipe input, CommandPipe output) throws Exception;
+
+    /**
+     * Execute as a common executor in the current thread.<br/>
+     * The piped arguments are used as the input elements, and all output elements are collected to a list.
+     *
+     * @param args      method arguments
+     * @param pipedArgs method arguments getting from pipeline
+     * @return list of output elements
+     * @throws Exception command execute exception
+     */
+    @Override
+    default Object execute(Object args, Object pipedArgs) throws Exception {
+        CommandPipe input = pipedArgs == null ? null : CommandPipe.of(pipedArgs);
+        CommandPipe output = new CommandPipe(CommandPipe.UNBOUNDED);
+        execute(args, input, output);
+        output.close();
+
+        return output.drain();
+    }
+}
@@ -0,0 +1,91 @@
+package com.riicarus.comandante.executor;
+
+import com.riicarus.comandante.exception.CommandExecutionException;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Runs a pipeline of streaming executors, every executor runs on its own worker of CommandWorkers and they are linked by bounded pipes.<br/>
+ * Pipelines longer than CommandWorkers' maxPipelineStages are rejected, so one command can not start unbounded workers.
+ * Every stage holds a permit of CommandWorkers' running stages until it returns, a pipeline which can not get permits for all its stages is rejected,
+ * it's not queued, since the stages holding the permits may wait for the caller to read their output.<br/>
+ * When an executor returns, its input pipe is cancelled, so the previous executors will stop as well;
+ * when an executor fails, its output pipe is failed, so the exception will be thrown to the next executors.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 19:05
+ * @since 3.1
+ */
+class StreamingPipeline {
+
+    private StreamingPipeline() {
+    }
+
+    /**
+     * Judge if all executors of the pipeline are streaming executors.
+     *
+     * @param pipeline executors of the pipeline, from the first one
+     * @return can be run as a streaming pipeline
+     */
+    static boolean isStreaming(AnalyzedExecutor[] pipeline) {
+        for (AnalyzedExecutor executor : pipeline) {
+            if (!executor.getCommandExecutor().isStreaming()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Start all executors of the pipeline, it returns at once.
+     *
+     * @param pipeline executors of the pipeline, from the first one
+     * @return the output pipe of the last executor
+     * @throws CommandExecutionException runtime exception, if the pipeline is longer than max pipeline stages, or too many stages are running
+     */
+    static CommandPipe start(AnalyzedExecutor[] pipeline) throws CommandExecutionException {
+        int maxStages = CommandWorkers.getMaxPipelineStages();
+        if (pipeline.length > maxStages) {
+            throw new CommandExecutionException("Streaming pipeline is too long, stages: " + pipeline.length + ", max: " + maxStages + ".");
+        }
+        Semaphore runningStages = CommandWorkers.getRunningStages();
+        if (!runningStages.tryAcquire(pipeline.length)) {
+            throw new CommandExecutionException("Too many streaming stages are running, pipeline rejected, stages: " + pipeline.length + ".");
+        }
+
+        CommandPipe input = null;
+        for (AnalyzedExecutor executor : pipeline) {
+            CommandPipe output = new CommandPipe();
+            final CommandPipe stageInput = input;
+            CommandWorkers.WORKERS.execute(() -> {
+                try {
+                    run(executor, stageInput, output);
+                } finally {
+                    runningStages.release();
+                }
+            });
+            input = output;
+        }
+
+        return input;
+    }
+
+    private static void run(AnalyzedExecutor executor, CommandPipe input, CommandPipe output) {
+        try {
+            try {
+                executor.getCommandExecutor().execute(executor.getArguments(), input, output);
+                output.close();
+            } catch (Throwable e) {
+                output.fail(e);
+            } finally {
+                if (input != null) {
+                    input.cancel();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
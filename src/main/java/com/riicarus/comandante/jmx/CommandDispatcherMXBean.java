@@ -0,0 +1,33 @@
+package com.riicarus.comandante.jmx;
+
+/**
+ * [FEATURE INFO]<br/>
+ * JMX view of the CommandDispatcher's metrics, latencies are in nanoseconds.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 21:57
+ * @since 3.1
+ */
+public interface CommandDispatcherMXBean {
+
+    long getDispatchedCount();
+
+    /**
+     * Commands dispatched per second in the last minute.
+     */
+    double getDispatchRate();
+
+    long getSyntaxErrorCount();
+
+    long getNotFoundErrorCount();
+
+    long getExecutionErrorCount();
+
+    long getLexP99();
+
+    long getParseP99();
+
+    long getQueueWaitP99();
+
+    int getPlanCacheSize();
+}
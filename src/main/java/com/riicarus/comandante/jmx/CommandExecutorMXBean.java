@@ -0,0 +1,26 @@
+package com.riicarus.comandante.jmx;
+
+/**
+ * [FEATURE INFO]<br/>
+ * JMX view of one CommandExecutor, times are in nanoseconds.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 21:58
+ * @since 3.1
+ */
+public interface CommandExecutorMXBean {
+
+    String getCommandString();
+
+    String getUsage();
+
+    boolean isStreaming();
+
+    long getInvocationCount();
+
+    long getFailureCount();
+
+    long getTotalTime();
+
+    long getMaxTime();
+}
@@ -0,0 +1,343 @@
+package com.riicarus.comandante.jmx;
+
+import com.riicarus.comandante.executor.CommandExecutor;
+import com.riicarus.comandante.main.CommandLogger;
+import com.riicarus.comandante.manage.CommandDispatcher;
+import com.riicarus.comandante.manage.CommandInputHandler;
+import com.riicarus.comandante.manage.CommandItemManager;
+import com.riicarus.comandante.metrics.CommandMetrics;
+import com.riicarus.comandante.metrics.RunnerActivity;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Registers MXBeans of Comandante to the platform MBeanServer under the domain "com.riicarus.comandante",
+ * every name has the key "instance={id}", ids are numbered from 1 in the creating order of CommandMBeans,
+ * so Comandantes in the same JVM never share MXBeans:<br/>
+ * 1. type=CommandQueue: depth, enqueue/dequeue rates and blocked producers of the input queue;<br/>
+ * 2. type=CommandRunner: busy/idle threads and the commands being run;<br/>
+ * 3. type=CommandDispatcher: dispatched count, rate, errors and phase latencies;<br/>
+ * 4. type=CommandExecutor,name={command string}: invocations, failures, cumulative and max time of every executor,
+ * executors registered later are registered as MXBeans when they are bound.<br/>
+ * <br/>
+ * The MXBeans only read the counters which are always updated, so nothing is collected when no one is monitoring.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 22:00
+ * @since 3.1
+ */
+public class CommandMBeans {
+
+    public static final String DOMAIN = "com.riicarus.comandante";
+    /**
+     * Window of rates shown by MXBeans.
+     */
+    private static final int RATE_WINDOW_SECONDS = 60;
+    private static final AtomicInteger INSTANCE_COUNT = new AtomicInteger(0);
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private final Queue<ObjectName> registeredNames = new ConcurrentLinkedQueue<>();
+    /**
+     * Value of the "instance" key of the names.
+     */
+    private final int instanceId = INSTANCE_COUNT.incrementAndGet();
+
+    private final Supplier<CommandInputHandler> inputHandler;
+    private final CommandDispatcher dispatcher;
+    private final RunnerActivity activity;
+    private final Thread runnerThread;
+    private final BooleanSupplier running;
+    private final Supplier<ExecutorService> workers;
+
+    /**
+     * Create the MXBeans of Comandante.
+     *
+     * @param inputHandler supplies the current command input handler
+     * @param dispatcher   command dispatcher
+     * @param activity     activity of threads running commands
+     * @param runnerThread the command runner thread
+     * @param running      if the command runner is running
+     * @param workers      supplies the worker pool, null means the runner thread runs commands itself
+     */
+    public CommandMBeans(Supplier<CommandInputHandler> inputHandler, CommandDispatcher dispatcher, RunnerActivity activity,
+                         Thread runnerThread, BooleanSupplier running, Supplier<ExecutorService> workers) {
+        this.inputHandler = inputHandler;
+        this.dispatcher = dispatcher;
+        this.activity = activity;
+        this.runnerThread = runnerThread;
+        this.running = running;
+        this.workers = workers;
+    }
+
+    /**
+     * Register all MXBeans, a failure is logged and does not stop registering the others.
+     */
+    public void register() {
+        register("type=CommandQueue", new QueueBean());
+        register("type=CommandRunner", new RunnerBean());
+        register("type=CommandDispatcher", new DispatcherBean());
+
+        CommandItemManager itemManager = dispatcher.getCommandRegister().getCommandItemManager();
+        itemManager.setBindListener(this::registerExecutor);
+        for (CommandExecutor executor : itemManager.getExecutors()) {
+            registerExecutor(executor);
+        }
+    }
+
+    /**
+     * Unregister all registered MXBeans.
+     */
+    public void unregister() {
+        dispatcher.getCommandRegister().getCommandItemManager().setBindListener(null);
+
+        ObjectName name;
+        while ((name = registeredNames.poll()) != null) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException ignored) {
+            }
+        }
+    }
+
+    private void registerExecutor(CommandExecutor executor) {
+        register("type=CommandExecutor,name=" + ObjectName.quote(String.valueOf(executor.getCommandString())), new ExecutorBean(executor));
+    }
+
+    /**
+     * Get the value of the "instance" key of the MXBeans' names.
+     *
+     * @return instance id
+     */
+    public int getInstanceId() {
+        return instanceId;
+    }
+
+    private void register(String properties, Object bean) {
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties + ",instance=" + instanceId);
+            server.registerMBean(bean, name);
+            registeredNames.add(name);
+        } catch (InstanceAlreadyExistsException e) {
+            CommandLogger.log("MXBean " + properties + ",instance=" + instanceId + " is already registered, it's not registered again.");
+        } catch (JMException e) {
+            CommandLogger.log("Failed to register MXBean " + properties + ": " + e.getMessage());
+        }
+    }
+
+    private class QueueBean implements CommandQueueMXBean {
+
+        @Override
+        public int getDepth() {
+            return inputHandler.get().size();
+        }
+
+        @Override
+        public int getRemainingCapacity() {
+            return inputHandler.get().remainingCapacity();
+        }
+
+        @Override
+        public String getOverflowPolicy() {
+            return inputHandler.get().getOverflowPolicy().name();
+        }
+
+        @Override
+        public long getEnqueuedCount() {
+            return inputHandler.get().getEnqueued().getTotal();
+        }
+
+        @Override
+        public long getDequeuedCount() {
+            return inputHandler.get().getDequeued().getTotal();
+        }
+
+        @Override
+        public double getEnqueueRate() {
+            return inputHandler.get().getEnqueued().getRate(RATE_WINDOW_SECONDS);
+        }
+
+        @Override
+        public double getDequeueRate() {
+            return inputHandler.get().getDequeued().getRate(RATE_WINDOW_SECONDS);
+        }
+
+        @Override
+        public int getBlockedProducerCount() {
+            return inputHandler.get().getBlockedProducerCount();
+        }
+
+        @Override
+        public long getDroppedCount() {
+            return inputHandler.get().getDroppedCount();
+        }
+
+        @Override
+        public long getRejectedCount() {
+            return inputHandler.get().getRejectedCount();
+        }
+    }
+
+    private class RunnerBean implements CommandRunnerMXBean {
+
+        @Override
+        public boolean isRunning() {
+            return running.getAsBoolean();
+        }
+
+        @Override
+        public String getRunnerThreadState() {
+            return runnerThread.getState().name();
+        }
+
+        /**
+         * It's -1 if the size of the worker pool is unknown.
+         */
+        @Override
+        public int getWorkerCount() {
+            ExecutorService pool = workers.get();
+            if (pool == null) {
+                return 1;
+            } else if (pool instanceof ThreadPoolExecutor) {
+                return ((ThreadPoolExecutor) pool).getPoolSize();
+            } else if (pool instanceof ForkJoinPool) {
+                return ((ForkJoinPool) pool).getPoolSize();
+            }
+
+            return -1;
+        }
+
+        @Override
+        public int getBusyCount() {
+            return activity.getBusyCount();
+        }
+
+        /**
+         * It's -1 if the size of the worker pool is unknown.
+         */
+        @Override
+        public int getIdleCount() {
+            int workerCount = getWorkerCount();
+            return workerCount < 0 ? -1 : Math.max(0, workerCount - activity.getBusyCount());
+        }
+
+        @Override
+        public long getCompletedCount() {
+            return activity.getCompletedCount();
+        }
+
+        @Override
+        public List<String> getCurrentCommands() {
+            return activity.getCurrentCommands();
+        }
+    }
+
+    private class DispatcherBean implements CommandDispatcherMXBean {
+
+        @Override
+        public long getDispatchedCount() {
+            return metrics().getThroughput().getTotal();
+        }
+
+        @Override
+        public double getDispatchRate() {
+            return metrics().getThroughput().getRate(RATE_WINDOW_SECONDS);
+        }
+
+        @Override
+        public long getSyntaxErrorCount() {
+            return metrics().getSyntaxErrorCount();
+        }
+
+        @Override
+        public long getNotFoundErrorCount() {
+            return metrics().getNotFoundErrorCount();
+        }
+
+        @Override
+        public long getExecutionErrorCount() {
+            return metrics().getExecutionErrorCount();
+        }
+
+        @Override
+        public long getLexP99() {
+            return metrics().getLexLatency().snapshot().getP99();
+        }
+
+        @Override
+        public long getParseP99() {
+            return metrics().getParseLatency().snapshot().getP99();
+        }
+
+        @Override
+        public long getQueueWaitP99() {
+            return metrics().getQueueWaitLatency().snapshot().getP99();
+        }
+
+        @Override
+        public int getPlanCacheSize() {
+            return dispatcher.getPlanCache().size();
+        }
+
+        private CommandMetrics metrics() {
+            return dispatcher.getMetrics();
+        }
+    }
+
+    private static class ExecutorBean implements CommandExecutorMXBean {
+
+        private final CommandExecutor executor;
+
+        ExecutorBean(CommandExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public String getCommandString() {
+            return executor.getCommandString();
+        }
+
+        @Override
+        public String getUsage() {
+            return executor.getUsage();
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return executor.isStreaming();
+        }
+
+        @Override
+        public long getInvocationCount() {
+            return executor.getMetrics().getUseCount();
+        }
+
+        @Override
+        public long getFailureCount() {
+            return executor.getMetrics().getErrorCount();
+        }
+
+        @Override
+        public long getTotalTime() {
+            return executor.getMetrics().getTotalTime();
+        }
+
+        @Override
+        public long getMaxTime() {
+            return executor.getMetrics().getMaxTime();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.riicarus.comandante.jmx;
+
+/**
+ * [FEATURE INFO]<br/>
+ * JMX view of the command input queue of CommandInputHandler.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 21:55
+ * @since 3.1
+ */
+public interface CommandQueueMXBean {
+
+    /**
+     * Count of commands waiting in the queue.
+     */
+    int getDepth();
+
+    /**
+     * Remaining capacity of the queue, Integer.MAX_VALUE for an unbounded queue.
+     */
+    int getRemainingCapacity();
+
+    String getOverflowPolicy();
+
+    long getEnqueuedCount();
+
+    long getDequeuedCount();
+
+    /**
+     * Commands put to the queue per second in the last minute.
+     */
+    double getEnqueueRate();
+
+    /**
+     * Commands taken from the queue per second in the last minute.
+     */
+    double getDequeueRate();
+
+    /**
+     * Count of producers blocked by the full queue now.
+     */
+    int getBlockedProducerCount();
+
+    long getDroppedCount();
+
+    long getRejectedCount();
+}
@@ -0,0 +1,37 @@
+package com.riicarus.comandante.jmx;
+
+import java.util.List;
+
+/**
+ * [FEATURE INFO]<br/>
+ * JMX view of the command runner thread and its worker pool.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 21:56
+ * @since 3.1
+ */
+public interface CommandRunnerMXBean {
+
+    boolean isRunning();
+
+    /**
+     * State of the command runner thread.
+     */
+    String getRunnerThreadState();
+
+    /**
+     * Count of threads running commands, it's the runner thread itself or the workers.
+     */
+    int getWorkerCount();
+
+    int getBusyCount();
+
+    int getIdleCount();
+
+    long getCompletedCount();
+
+    /**
+     * Commands being run, every element is like "{thread name}: {command}".
+     */
+    List<String> getCurrentCommands();
+}
@@ -0,0 +1,272 @@
+package com.riicarus.comandante.main;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * [FEATURE INFO]<br/>
+ * The appender of CommandLogger's asynchronous mode.<br/>
+ * Producers put logs to a preallocated lock-free ring buffer, and one background writer takes them in batch,
+ * formats them with cached timestamps and writes them to the output streams of CommandLogger.<br/>
+ * The writer flushes when the pending output reaches the size threshold, or the oldest pending log waits for the time threshold.<br/>
+ * <br/>
+ * Every slot of the ring buffer has a sequence: a producer claims a position by CAS and writes the slot when its sequence equals the position,
+ * the writer reads the slot when its sequence equals the position + 1, then releases it for the next round.<br/>
+ * If the ring buffer is full, producers wait for the writer instead of dropping logs.<br/>
+ * The writer parks when the ring buffer is empty, and producers unpark it after writing a slot.<br/>
+ * Stopping the appender closes the tail, a producer which has claimed a position before will be written by the writer before it exits,
+ * and a producer which finds the tail closed, or the ring buffer full with a dead writer, gets false and should write the log itself.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 20:05
+ * @since 3.1
+ */
+class AsyncLogAppender {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    /**
+     * Max count of chars of pending output before flushing.
+     */
+    private static final int FLUSH_SIZE = 64 * 1024;
+    /**
+     * Max time of a log waiting in pending output before flushing.
+     */
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    /**
+     * Time of parking when a producer finds the ring buffer is full.
+     */
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int mask;
+    private final String[] messages;
+    private final long[] times;
+    /**
+     * Sequences of slots.
+     */
+    private final AtomicLongArray sequences;
+    /**
+     * Marks the tail closed, no position can be claimed then.
+     */
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    /**
+     * The next position to be claimed by producers, with the CLOSED bit when the appender is stopped.
+     */
+    private final AtomicLong tail = new AtomicLong(0);
+    /**
+     * The next position to be read by the writer, only changed by the writer.
+     */
+    private volatile long head = 0;
+    /**
+     * Count of logs written and flushed by the writer.
+     */
+    private volatile long flushed = 0;
+    /**
+     * If the writer is parked or going to park, producers only unpark it then.
+     */
+    private volatile boolean writerParked = false;
+    private final Thread writer;
+
+    /**
+     * The second of the cached timestamp prefix, only used by the writer.
+     */
+    private long cachedSecond = -1;
+    private String cachedSecondPrefix;
+
+    /**
+     * Create an appender and start its writer.
+     *
+     * @param capacity capacity of the ring buffer, it will be rounded up to a power of two
+     */
+    AsyncLogAppender(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.messages = new String[size];
+        this.times = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+
+        this.writer = new Thread(this::write, "comandante-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Put a log to the ring buffer, it waits if the ring buffer is full.
+     *
+     * @param message log message
+     * @param time    log time in milliseconds
+     * @return false if the appender is stopped or its writer is dead, then the log is not put and should be written by the caller
+     */
+    boolean append(String message, long time) {
+        long position = tail.get();
+        int idx;
+        while (true) {
+            if (position < 0) {
+                return false;
+            }
+
+            idx = (int) position & mask;
+            long difference = sequences.get(idx) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // full, wait for the writer to release the slot
+                if (!writer.isAlive()) {
+                    return false;
+                }
+                LockSupport.parkNanos(PARK_NANOS);
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+
+        messages[idx] = message;
+        times[idx] = time;
+        // a volatile write, so the writer can not miss it after announcing that it's parked
+        sequences.set(idx, position + 1);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+
+        return true;
+    }
+
+    /**
+     * Wait until all logs appended before are written and flushed.
+     */
+    void flush() {
+        long target = tail.get() & ~CLOSED;
+        while (flushed < target && writer.isAlive()) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /**
+     * Stop the writer after all appended logs are written.
+     */
+    void stop() {
+        close();
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Close the tail, then producers can not claim positions any more.
+     */
+    private void close() {
+        long position = tail.get();
+        while (position >= 0 && !tail.compareAndSet(position, position | CLOSED)) {
+            position = tail.get();
+        }
+    }
+
+    /**
+     * The writer's loop, the tail is closed when the writer exits, even by an error.
+     */
+    private void write() {
+        try {
+            doWrite();
+        } finally {
+            close();
+        }
+    }
+
+    private void doWrite() {
+        StringBuilder output = new StringBuilder();
+        StringBuilder formattedLog = new StringBuilder();
+        long pendingCount = 0;
+        long pendingSince = 0;
+
+        while (true) {
+            long position = head;
+            int idx = (int) position & mask;
+            if (sequences.get(idx) == position + 1) {
+                String message = messages[idx];
+                long time = times[idx];
+                messages[idx] = null;
+                sequences.lazySet(idx, position + mask + 1);
+                head = position + 1;
+
+                if (pendingCount == 0) {
+                    pendingSince = System.nanoTime();
+                }
+                pendingCount++;
+                output.append(message).append(System.lineSeparator());
+                if (CommandLogger.isLoggable()) {
+                    formattedLog.append("comandante[");
+                    appendTime(formattedLog, time);
+                    formattedLog.append("]").append(CommandLogger.LOG_STRING_PREFIX).append(message).append(System.lineSeparator());
+                }
+
+                if (output.length() + formattedLog.length() < FLUSH_SIZE && System.nanoTime() - pendingSince < FLUSH_INTERVAL_NANOS) {
+                    continue;
+                }
+            }
+
+            if (pendingCount > 0) {
+                CommandLogger.writeAll(output, formattedLog);
+                output.setLength(0);
+                formattedLog.setLength(0);
+                flushed += pendingCount;
+                pendingCount = 0;
+            } else {
+                long tailPosition = tail.get();
+                if (tailPosition < 0 && head == (tailPosition & ~CLOSED)) {
+                    return;
+                }
+                park(idx, position);
+            }
+        }
+    }
+
+    /**
+     * Park the writer until the slot at the position is written or the appender is stopped.
+     *
+     * @param idx      index of the slot
+     * @param position position to read
+     */
+    private void park(int idx, long position) {
+        writerParked = true;
+        if (sequences.get(idx) != position + 1 && tail.get() >= 0) {
+            LockSupport.park(this);
+        }
+        writerParked = false;
+    }
+
+    /**
+     * Append the time formatted like "yyyy-MM-dd HH:mm:ss SSS", the part till seconds is cached.
+     *
+     * @param builder the builder to append to
+     * @param time    time in milliseconds
+     */
+    private void appendTime(StringBuilder builder, long time) {
+        long second = time / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedSecondPrefix = CommandLogger.formatTime(second * 1000).substring(0, 20);
+        }
+
+        int millis = (int) (time - second * 1000);
+        builder.append(cachedSecondPrefix);
+        if (millis < 100) {
+            builder.append('0');
+        }
+        if (millis < 10) {
+            builder.append('0');
+        }
+        builder.append(millis);
+    }
+}
@@ -1,15 +1,27 @@
 package com.riicarus.comandante.main;
 
 import com.riicarus.comandante.exception.CommandLoadException;
+import com.riicarus.comandante.jmx.CommandMBeans;
 import com.riicarus.comandante.manage.CommandDispatcher;
 import com.riicarus.comandante.manage.CommandInputHandler;
+import com.riicarus.comandante.manage.PendingCommand;
 import com.riicarus.comandante.manage.CommandRegister;
+import com.riicarus.comandante.metrics.RunnerActivity;
 import com.riicarus.util.asserts.Asserts;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
 /**
  * [FEATURE INFO]<br/>
  * Comandante is the interact center, maintains the CommandDispatcher and InputHandler. <br/>
  * It uses a thread to handle command input, analysis and execution. <br/>
+ * If a worker pool is given, the thread only drains the input queue and hands the commands to the workers,
+ * but no more commands than the workers can run at once, so the pending commands stay in the input queue and its policy works. <br/>
+ * MXBeans of the input queue, the runner, the dispatcher and executors are registered when the runner starts, see CommandMBeans. <br/>
  *
  * @author Riicarus
  * @create 2022-10-15 16:23
@@ -21,9 +33,9 @@ public class Comandante {
      */
     private final CommandDispatcher commandDispatcher;
     /**
-     * Get command input.
+     * Get command input. It can only be replaced before the command runner starts.
      */
-    private final CommandInputHandler commandInputHandler;
+    private volatile CommandInputHandler commandInputHandler;
     /**
      * The thread running CommandRunner, which is the command analyzing and executing thread.
      */
@@ -32,6 +44,28 @@ public class Comandante {
      * If the command runner thread is running.
      */
     private volatile boolean run = false;
+    /**
+     * The worker pool to analyze and execute commands, null means the runner thread does the work itself.<br/>
+     * The pool is owned by the caller, Comandante will not shut it down.
+     */
+    private volatile ExecutorService commandWorkers;
+    /**
+     * Permits of the commands handed to the worker pool and not finished, null if there's no worker pool.
+     */
+    private volatile Semaphore runningPermits;
+    /**
+     * If the segments linked by command linker(&amp;) in one command are executed one by one in their input order.<br/>
+     * It only works with the worker pool, otherwise segments are always executed in order.
+     */
+    private volatile boolean strictLinkOrder = true;
+    /**
+     * Activity of the threads running commands.
+     */
+    private final RunnerActivity runnerActivity = new RunnerActivity();
+    /**
+     * The MXBeans of Comandante.
+     */
+    private final CommandMBeans mBeans;
 
     /**
      * Do not expose contractor outside, just provide to CommandLauncher to expose least API.
@@ -40,17 +74,65 @@ public class Comandante {
         this.commandDispatcher = new CommandDispatcher();
         this.commandInputHandler = new CommandInputHandler();
         this.commandRunnerThread = new Thread(new CommandRunner(this), "CommandRunnerThread");
+        this.mBeans = new CommandMBeans(() -> commandInputHandler, commandDispatcher, runnerActivity,
+                commandRunnerThread, () -> run, () -> commandWorkers);
     }
 
     /**
      * Start the command runner thread, ensure there's only one thread which is running.
      */
     protected synchronized void startCommandRunner() throws CommandLoadException {
+        startCommandRunner(null, true);
+    }
+
+    /**
+     * Start the command runner thread with a worker pool, ensure there's only one thread which is running.<br/>
+     * The pool can be a fixed thread pool, a work-stealing pool, or a virtual-thread-per-task executor when running on JDK 21+.
+     *
+     * @param commandWorkers  the worker pool to analyze and execute commands, null means the runner thread does the work itself
+     * @param strictLinkOrder if the segments linked by command linker(&amp;) in one command keep their input order
+     */
+    protected synchronized void startCommandRunner(ExecutorService commandWorkers, boolean strictLinkOrder) throws CommandLoadException {
+        startCommandRunner(commandWorkers, strictLinkOrder, defaultMaxRunningCommands(commandWorkers));
+    }
+
+    /**
+     * Start the command runner thread with a worker pool and the max count of commands handed to the pool at once.
+     *
+     * @param commandWorkers     the worker pool to analyze and execute commands, null means the runner thread does the work itself
+     * @param strictLinkOrder    if the segments linked by command linker(&amp;) in one command keep their input order
+     * @param maxRunningCommands max count of commands handed to the pool and not finished, the others wait in the input queue
+     */
+    protected synchronized void startCommandRunner(ExecutorService commandWorkers, boolean strictLinkOrder, int maxRunningCommands) throws CommandLoadException {
         Asserts.isFalse(run, new CommandLoadException("CommandRunner is already running."));
+        Asserts.isTrue(commandWorkers == null || maxRunningCommands > 0, new CommandLoadException("Max running commands must be positive."));
 
+        this.commandWorkers = commandWorkers;
+        this.runningPermits = commandWorkers == null ? null : new Semaphore(maxRunningCommands);
+        this.strictLinkOrder = strictLinkOrder;
         commandRunnerThread.start();
 
         run = true;
+        mBeans.register();
+    }
+
+    /**
+     * Get the default max count of commands handed to the worker pool at once, which is the count of threads the pool can run.
+     *
+     * @param commandWorkers worker pool
+     * @return max running commands
+     */
+    private static int defaultMaxRunningCommands(ExecutorService commandWorkers) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        if (commandWorkers instanceof ThreadPoolExecutor) {
+            // a cached pool has no max size, its threads are bounded by the processors
+            int maxPoolSize = ((ThreadPoolExecutor) commandWorkers).getMaximumPoolSize();
+            return maxPoolSize == Integer.MAX_VALUE ? processors : maxPoolSize;
+        } else if (commandWorkers instanceof ForkJoinPool) {
+            return ((ForkJoinPool) commandWorkers).getParallelism();
+        }
+
+        return processors;
     }
 
     protected CommandRegister getCommandRegister() {
@@ -61,6 +143,19 @@ public class Comandante {
         return commandInputHandler;
     }
 
+    /**
+     * Replace the command input handler, used to configure the command input queue.
+     *
+     * @param commandInputHandler command input handler
+     * @throws CommandLoadException runtime exception, if the command runner is running
+     */
+    protected synchronized void setIoHandler(CommandInputHandler commandInputHandler) throws CommandLoadException {
+        Asserts.notNull(commandInputHandler, new CommandLoadException("CommandInputHandler can not be null."));
+        Asserts.isFalse(run, new CommandLoadException("Can not replace CommandInputHandler while CommandRunner is running."));
+
+        this.commandInputHandler = commandInputHandler;
+    }
+
     public CommandDispatcher getCommandDispatcher() {
         return commandDispatcher;
     }
@@ -72,11 +167,13 @@ public class Comandante {
      */
     protected void stop() {
         run = false;
+        mBeans.unregister();
     }
 
     /**
-     * Use to create the command runner thread, we prefer that there's a single thread to handle the command process work.<br/>
-     * It's mainly used to process the command input strings passing through InputHandler, dispatches and executes them.
+     * Use to create the command runner thread, we prefer that there's a single thread to drain the command input queue.<br/>
+     * It's mainly used to process the command input strings passing through InputHandler, dispatches and executes them,
+     * or hands them to the worker pool if there is one.
      */
     static class CommandRunner implements Runnable {
 
@@ -89,15 +186,92 @@ public class Comandante {
         @Override
         public void run() {
             while (comandante.run) {
-                String command;
+                PendingCommand command;
                 try {
                     command = comandante.commandInputHandler.consume();
-                    comandante.commandDispatcher.dispatch(command);
                 } catch (Exception e) {
                     CommandLogger.log(e.getMessage());
+                    CommandLogger.log("");
+                    continue;
+                }
+
+                ExecutorService workers = comandante.commandWorkers;
+                if (workers == null) {
+                    runCommand(command, null, null);
+                    continue;
+                }
+
+                // wait for a free worker, the next commands wait in the input queue meanwhile
+                Semaphore permits = comandante.runningPermits;
+                permits.acquireUninterruptibly();
+                try {
+                    workers.execute(() -> runCommand(command, workers, permits));
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    CommandLogger.log("Command rejected by the worker pool: " + command);
+                    CommandLogger.log("");
+                    command.getResult().completeExceptionally(e);
+                }
+            }
+        }
+
+        /**
+         * Dispatch and execute one command, if the link order is not strict, its segments will be executed by the workers.<br/>
+         * The time from the command being received till now is recorded as its queue-wait latency.<br/>
+         * The command's result future will be completed after execution.
+         *
+         * @param command pending command
+         * @param workers the worker pool, null means there's no worker pool
+         * @param permits permits of the commands handed to the worker pool, released when the command is finished, null if there's no worker pool
+         */
+        private void runCommand(PendingCommand command, ExecutorService workers, Semaphore permits) {
+            comandante.commandDispatcher.getMetrics().recordQueueWait(System.nanoTime() - command.getReceivedTime());
+
+            comandante.runnerActivity.begin(command.getCommand());
+            try {
+                doRunCommand(command, workers, permits);
+            } finally {
+                comandante.runnerActivity.end();
+            }
+        }
+
+        private void doRunCommand(PendingCommand command, ExecutorService workers, Semaphore permits) {
+            if (workers == null || comandante.strictLinkOrder) {
+                try {
+                    command.getResult().complete(comandante.commandDispatcher.dispatch(command.getCommand(), command.isDrainPipes()));
+                } catch (Exception e) {
+                    CommandLogger.log(e.getMessage());
+                    command.getResult().completeExceptionally(e);
                 } finally {
                     CommandLogger.log("");
+                    release(permits);
                 }
+                return;
+            }
+
+            try {
+                comandante.commandDispatcher.dispatch(command.getCommand(), workers, command.isDrainPipes()).whenComplete((results, e) -> {
+                    if (e != null) {
+                        Throwable cause = e.getCause() == null ? e : e.getCause();
+                        CommandLogger.log(cause.getMessage());
+                        command.getResult().completeExceptionally(cause);
+                    } else {
+                        command.getResult().complete(results);
+                    }
+                    CommandLogger.log("");
+                    release(permits);
+                });
+            } catch (Exception e) {
+                CommandLogger.log(e.getMessage());
+                CommandLogger.log("");
+                command.getResult().completeExceptionally(e);
+                release(permits);
+            }
+        }
+
+        private static void release(Semaphore permits) {
+            if (permits != null) {
+                permits.release();
             }
         }
     }
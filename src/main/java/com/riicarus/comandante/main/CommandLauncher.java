@@ -1,14 +1,23 @@
 package com.riicarus.comandante.main;
 
 import com.riicarus.comandante.command.InnerCommand;
-import com.riicarus.comandante.config.CommandConfig;
 import com.riicarus.comandante.exception.CommandLoadException;
 import com.riicarus.comandante.exception.CommandProduceException;
+import com.riicarus.comandante.executor.CommandWorkers;
+import com.riicarus.comandante.manage.CommandBatchResult;
+import com.riicarus.comandante.manage.CommandCompletion;
+import com.riicarus.comandante.manage.CommandInputHandler;
 import com.riicarus.comandante.manage.CommandRegister;
+import com.riicarus.comandante.metrics.CommandMetricsSnapshot;
 
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 /**
  * [FEATURE INFO]<br/>
@@ -18,9 +27,9 @@ import java.nio.charset.StandardCharsets;
  * <br/>
  * Main feature:<br/>
  * 1. Provide command register api: register()<br/>
- * 2. Provide command process thread's(CommandRunner) open and close api: enable(), disable()<br/>
+ * 2. Provide command process thread's(CommandRunner) open and close api: enable(), enable(ExecutorService), disable()<br/>
  * 3. Provide global output redirection api: redirectOutput()<br/>
- * 4. Provide command string input api, used to dispatch and execute command: dispatchToCache()<br/>
+ * 4. Provide command string input api, used to dispatch and execute command: dispatchToCache(), dispatchAsync()<br/>
  *
  * @author Riicarus
  * @create 2022-11-8 13:16
@@ -34,8 +43,8 @@ public class CommandLauncher {
     public static final Comandante COMANDANTE = new Comandante();
 
     static {
-        InnerCommand.defineCommand();
-        CommandConfig.loadConfig();
+        // config is loaded when it's read for the first time
+        COMANDANTE.getCommandRegister().batch(InnerCommand::defineCommand);
     }
 
     private CommandLauncher() {
@@ -57,6 +66,39 @@ public class CommandLauncher {
         COMANDANTE.startCommandRunner();
     }
 
+    /**
+     * Start a CommandRunner thread which hands the commands to the given worker pool.<br/>
+     * Segments linked by the command linker(&amp;) in one command are still executed in their input order.
+     *
+     * @param commandWorkers the worker pool to analyze and execute commands, owned by the caller
+     */
+    public static void enable(ExecutorService commandWorkers) {
+        COMANDANTE.startCommandRunner(commandWorkers, true);
+    }
+
+    /**
+     * Start a CommandRunner thread which hands the commands to the given worker pool.
+     *
+     * @param commandWorkers  the worker pool to analyze and execute commands, owned by the caller
+     * @param strictLinkOrder if false, segments linked by the command linker(&amp;) in one command are executed by the workers concurrently
+     */
+    public static void enable(ExecutorService commandWorkers, boolean strictLinkOrder) {
+        COMANDANTE.startCommandRunner(commandWorkers, strictLinkOrder);
+    }
+
+    /**
+     * Start a CommandRunner thread which hands at most maxRunningCommands commands to the given worker pool at once,
+     * the other commands wait in the command input queue, so its capacity and full policy still work.<br/>
+     * By default, it's the max pool size of a ThreadPoolExecutor, the parallelism of a ForkJoinPool, or the count of processors.
+     *
+     * @param commandWorkers     the worker pool to analyze and execute commands, owned by the caller
+     * @param strictLinkOrder    if false, segments linked by the command linker(&amp;) in one command are executed by the workers concurrently
+     * @param maxRunningCommands max count of commands handed to the pool and not finished
+     */
+    public static void enable(ExecutorService commandWorkers, boolean strictLinkOrder, int maxRunningCommands) {
+        COMANDANTE.startCommandRunner(commandWorkers, strictLinkOrder, maxRunningCommands);
+    }
+
     /**
      * Stop the current CommandRunner thread.
      */
@@ -64,6 +106,19 @@ public class CommandLauncher {
         COMANDANTE.stop();
     }
 
+    /**
+     * Replace the command input handler to configure the command input queue, must be invoked before enable().
+     *
+     * @param commandInputHandler command input handler
+     */
+    public static void setInputHandler(CommandInputHandler commandInputHandler) {
+        try {
+            COMANDANTE.setIoHandler(commandInputHandler);
+        } catch (CommandLoadException e) {
+            CommandLogger.log(e.getMessage());
+        }
+    }
+
     /**
      * Redirect CommandLogger's global output.
      *
@@ -91,6 +146,58 @@ public class CommandLauncher {
         }
     }
 
+    /**
+     * Set the workers which run the segments linked by the parallel command linker(&amp;&amp;),
+     * by default, it's a pool with one daemon worker per processor and at most one segment per processor of a group runs at once.
+     *
+     * @param segmentWorkers      the executor to run segments, owned by the caller
+     * @param maxParallelSegments max count of segments of one parallel group running at once
+     */
+    public static void setSegmentWorkers(Executor segmentWorkers, int maxParallelSegments) {
+        CommandWorkers.setSegmentWorkers(segmentWorkers, maxParallelSegments);
+    }
+
+    /**
+     * Set the max count of stages of a streaming pipeline, longer streaming pipelines are rejected when they are executed.
+     *
+     * @param maxPipelineStages max count of stages, every stage runs on its own worker, 64 by default
+     */
+    public static void setMaxPipelineStages(int maxPipelineStages) {
+        CommandWorkers.setMaxPipelineStages(maxPipelineStages);
+    }
+
+    /**
+     * Set the max count of running stages of all streaming pipelines, a pipeline started when there are not enough free stages is rejected.
+     *
+     * @param maxRunningStages max count of running stages, every stage runs on its own worker, 1024 by default
+     */
+    public static void setMaxRunningStages(int maxRunningStages) {
+        CommandWorkers.setMaxRunningStages(maxRunningStages);
+    }
+
+    /**
+     * Switch CommandLogger to the asynchronous mode, logs are written by a background writer, so logging never blocks on I/O.
+     */
+    public static void enableAsyncLog() {
+        CommandLogger.setAsync(AsyncLogAppender.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Switch CommandLogger to the asynchronous mode with the given ring buffer capacity.
+     *
+     * @param capacity capacity of the ring buffer, it will be rounded up to a power of two
+     */
+    public static void enableAsyncLog(int capacity) {
+        CommandLogger.setAsync(capacity);
+    }
+
+    /**
+     * Switch CommandLogger to the synchronous mode, logs in the ring buffer are written before it returns.
+     */
+    public static void disableAsyncLog() {
+        CommandLogger.setSync();
+    }
+
     /**
      * Set the output stream of CommandLogger's log file.
      *
@@ -118,6 +225,19 @@ public class CommandLauncher {
         }
     }
 
+    /**
+     * Set the log file sink of CommandLogger, which can rotate, compress and force the log file, see FileLogSink.builder(path).
+     *
+     * @param sink the log file sink
+     */
+    public static void setLogSink(FileLogSink sink) {
+        try {
+            CommandLogger.setLog(sink);
+        } catch (CommandLoadException e) {
+            CommandLogger.log(e.getMessage());
+        }
+    }
+
     /**
      * The interface for input command string.<br/>
      * We firstly store the command to the cache queue of CommandInputHandler and wait for consume.
@@ -131,4 +251,49 @@ public class CommandLauncher {
             CommandLogger.log(e.getMessage());
         }
     }
+
+    /**
+     * The asynchronous interface for input command string.<br/>
+     * The command is stored to the cache queue of CommandInputHandler like dispatchToCache(),
+     * the returned future will be completed with the results of the command's executors in input order after execution.<br/>
+     * The future is completed by the CommandRunner, so the runner must be enabled.
+     * Output CommandPipes of streaming pipelines in the results are not logged, the caller should read or cancel them.
+     *
+     * @param command command input string
+     * @return the future of the command's execution results
+     */
+    public static CompletableFuture<List<Object>> dispatchAsync(String command) {
+        return COMANDANTE.getIoHandler().inputAsync(command);
+    }
+
+    /**
+     * Dispatch a batch of commands in the current thread without the cache queue, the CommandRunner is not needed.<br/>
+     * Commands are analyzed and executed one by one in input order, an error of one command does not stop the other commands.
+     *
+     * @param commands command input strings
+     * @return results and errors of every command
+     */
+    public static CommandBatchResult dispatchAll(Collection<String> commands) {
+        return COMANDANTE.getCommandDispatcher().dispatchAll(commands);
+    }
+
+    /**
+     * Complete the word at the cursor of a partial command input, used by interactive consoles for tab completion.
+     *
+     * @param partialInput partial command input
+     * @param cursor       cursor in the input
+     * @return completions ranked by the use count of their executors
+     */
+    public static CommandCompletion complete(String partialInput, int cursor) {
+        return COMANDANTE.getCommandDispatcher().complete(partialInput, cursor);
+    }
+
+    /**
+     * Take a snapshot of the metrics: lex, parse, queue-wait and execute latencies, throughput and error counts.
+     *
+     * @return metrics snapshot
+     */
+    public static CommandMetricsSnapshot getStats() {
+        return COMANDANTE.getCommandDispatcher().getStats();
+    }
 }
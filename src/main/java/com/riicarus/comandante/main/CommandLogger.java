@@ -5,7 +5,10 @@ import com.riicarus.util.asserts.Asserts;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * [FEATURE INFO]<br/>
@@ -17,6 +20,9 @@ import java.text.SimpleDateFormat;
  * We suggest that all output is processed by CommandLogger.log(). <br/>
  * <br/>
  * Just provide static API, do not create new instance.<br/>
+ * <br/>
+ * In the asynchronous mode, logs are put to a ring buffer and written by a background writer in batch,
+ * so the logging thread never blocks on I/O. Call flush() to wait for the logs to be written.<br/>
  *
  * @author Riicarus
  * @create 2022-11-8 17:06
@@ -26,11 +32,11 @@ public class CommandLogger {
     /**
      * Output stream.
      */
-    private static PrintStream printStream = System.out;
+    private static volatile PrintStream printStream = System.out;
     /**
      * Log output stream.
      */
-    private static PrintStream logStream;
+    private static volatile PrintStream logStream;
     /**
      * The log output file stream, which can only be absolute path.
      */
@@ -38,12 +44,20 @@ public class CommandLogger {
     /**
      * Can output log.
      */
-    private static boolean loggable = false;
+    private static volatile boolean loggable = false;
+    /**
+     * The time format, it's immutable and thread-safe.
+     */
+    private static final DateTimeFormatter LOG_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss SSS").withZone(ZoneId.systemDefault());
+    static final String LOG_STRING_PREFIX = ">";
+    /**
+     * The appender of the asynchronous mode, null in the synchronous mode.
+     */
+    private static volatile AsyncLogAppender asyncAppender;
     /**
-     * The time format.
+     * Is the shutdown hook to flush logs added.
      */
-    private static final SimpleDateFormat SDF_LOG = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss SSS");
-    private static final String LOG_STRING_PREFIX = ">";
+    private static boolean flushOnShutdown = false;
 
     private CommandLogger() {
     }
@@ -74,7 +88,8 @@ public class CommandLogger {
     }
 
     /**
-     * Set log output stream.
+     * Set log output stream.<br/>
+     * The log file is written by a FileLogSink without rotation, and is truncated when it's opened.
      *
      * @param path output file path, must be absolute path
      */
@@ -83,19 +98,16 @@ public class CommandLogger {
 
         if (path.startsWith("/") || path.indexOf(":") > 0) {
             try {
-                FileOutputStream fos = new FileOutputStream(path);
-                logStream = new PrintStream(fos, true);
-                loggable = true;
-            } catch (FileNotFoundException e) {
-                loggable = false;
-                logFilePath = null;
-                logStream = null;
+                setLog(FileLogSink.builder(path).build());
+            } catch (IOException e) {
+                disableLog();
             }
         }
     }
 
     /**
-     * Set log output stream with charset.
+     * Set log output stream with charset.<br/>
+     * The log file is written by a FileLogSink without rotation, and is truncated when it's opened.
      *
      * @param path output file path, must be absolute path
      * @param charsets log output charset
@@ -105,14 +117,54 @@ public class CommandLogger {
         Asserts.notNull(charsets, new CommandLoadException("Charsets can not be null."));
 
         if (path.startsWith("/") || path.indexOf(":") > 0) {
+            FileLogSink sink = null;
             try {
-                FileOutputStream fos = new FileOutputStream(path);
-                logStream = new PrintStream(fos, true, charsets.toString());
-                loggable = true;
-            } catch (FileNotFoundException | UnsupportedEncodingException e) {
-                loggable = false;
-                logFilePath = null;
-                logStream = null;
+                sink = FileLogSink.builder(path).build();
+                openLog(sink, new PrintStream(sink, false, charsets.toString()));
+            } catch (IOException e) {
+                closeQuietly(sink);
+                disableLog();
+            }
+        }
+    }
+
+    /**
+     * Set log output stream to the given sink, the sink decides how the log file is buffered, rotated and forced.<br/>
+     * The sink is closed when the log output is changed or CommandLogger is closed.
+     *
+     * @param sink log file sink
+     */
+    protected static void setLog(FileLogSink sink) throws CommandLoadException {
+        Asserts.notNull(sink, new CommandLoadException("Log sink can not be null."));
+
+        openLog(sink, new PrintStream(sink, false));
+    }
+
+    private static synchronized void openLog(FileLogSink sink, PrintStream stream) {
+        PrintStream old = logStream;
+        logFilePath = sink.getPath().toString();
+        logStream = stream;
+        loggable = true;
+        if (old != null) {
+            old.close();
+        }
+    }
+
+    private static synchronized void disableLog() {
+        PrintStream old = logStream;
+        loggable = false;
+        logFilePath = null;
+        logStream = null;
+        if (old != null) {
+            old.close();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
             }
         }
     }
@@ -123,18 +175,136 @@ public class CommandLogger {
      * @param s output string
      */
     public static void log(String s) {
-        String logTimeStr = SDF_LOG.format(System.currentTimeMillis());
-        String formattedLog = "comandante[" + logTimeStr + "]" + LOG_STRING_PREFIX + s;
+        AsyncLogAppender appender = asyncAppender;
+        if (appender != null && appender.append(s, System.currentTimeMillis())) {
+            return;
+        }
+
         printStream.println(s);
-        if (loggable) {
-            logStream.println(formattedLog);
+        PrintStream log = logStream;
+        if (loggable && log != null) {
+            log.println("comandante[" + formatTime(System.currentTimeMillis()) + "]" + LOG_STRING_PREFIX + s);
+        }
+    }
+
+    /**
+     * Log values line by line, the time is formatted once and each output stream is written once for all values.
+     *
+     * @param values values to output, null will be output as "null"
+     */
+    public static void logAll(List<?> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        AsyncLogAppender appender = asyncAppender;
+        if (appender != null) {
+            long time = System.currentTimeMillis();
+            int appended = 0;
+            while (appended < values.size() && appender.append(String.valueOf(values.get(appended)), time)) {
+                appended++;
+            }
+            if (appended == values.size()) {
+                return;
+            }
+            // the appender is stopped, write the rest synchronously
+            values = values.subList(appended, values.size());
+        }
+
+        String logTimeStr = formatTime(System.currentTimeMillis());
+        String lineSeparator = System.lineSeparator();
+        StringBuilder output = new StringBuilder();
+        StringBuilder formattedLog = loggable ? new StringBuilder() : null;
+        for (Object value : values) {
+            String s = String.valueOf(value);
+            output.append(s).append(lineSeparator);
+            if (formattedLog != null) {
+                formattedLog.append("comandante[").append(logTimeStr).append("]").append(LOG_STRING_PREFIX).append(s).append(lineSeparator);
+            }
+        }
+
+        writeAll(output, formattedLog);
+    }
+
+    /**
+     * Write formatted output and log to the streams.
+     *
+     * @param output       output lines
+     * @param formattedLog formatted log lines, null or empty if there's nothing to log
+     */
+    static void writeAll(CharSequence output, CharSequence formattedLog) {
+        printStream.print(output.toString());
+        PrintStream log = logStream;
+        if (loggable && log != null && formattedLog != null && formattedLog.length() > 0) {
+            log.print(formattedLog.toString());
+        }
+    }
+
+    /**
+     * Format the time like "yyyy-MM-dd HH:mm:ss SSS".
+     *
+     * @param time time in milliseconds
+     * @return formatted time
+     */
+    static String formatTime(long time) {
+        return LOG_TIME_FORMATTER.format(Instant.ofEpochMilli(time));
+    }
+
+    static boolean isLoggable() {
+        return loggable;
+    }
+
+    /**
+     * Switch to the asynchronous mode, if it's already asynchronous, the old appender is stopped after its logs are written.<br/>
+     * Logs in the ring buffer will be flushed when the JVM shuts down.
+     *
+     * @param capacity capacity of the ring buffer
+     */
+    protected static synchronized void setAsync(int capacity) {
+        setSync();
+        asyncAppender = new AsyncLogAppender(capacity);
+
+        if (!flushOnShutdown) {
+            flushOnShutdown = true;
+            Runtime.getRuntime().addShutdownHook(new Thread(CommandLogger::flush, "comandante-log-flush"));
+        }
+    }
+
+    /**
+     * Switch to the synchronous mode, the logs in the ring buffer are written before it returns.
+     */
+    protected static synchronized void setSync() {
+        AsyncLogAppender old = asyncAppender;
+        asyncAppender = null;
+        if (old != null) {
+            old.stop();
+        }
+    }
+
+    public static boolean isAsync() {
+        return asyncAppender != null;
+    }
+
+    /**
+     * Wait until all logs are written and flushed, then write the buffered bytes of the log file.
+     */
+    public static void flush() {
+        AsyncLogAppender appender = asyncAppender;
+        if (appender != null) {
+            appender.flush();
+        }
+
+        PrintStream log = logStream;
+        if (log != null) {
+            log.flush();
         }
     }
 
     /**
-     * Close all output stream.
+     * Close all output stream, the asynchronous mode will be switched to the synchronous mode.
      */
     public static void close() {
+        setSync();
         printStream.close();
         if (loggable) {
             logStream.close();
@@ -0,0 +1,441 @@
+package com.riicarus.comandante.main;
+
+import com.riicarus.comandante.exception.CommandLoadException;
+import com.riicarus.util.asserts.Asserts;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * [FEATURE INFO]<br/>
+ * The log file sink of CommandLogger, it collects log bytes in a large direct buffer and writes the buffer to a FileChannel at once,
+ * so logging a line is not a syscall.<br/>
+ * The buffer is written when it's full, when it's flushed, or by the background flusher every flush interval.<br/>
+ * <br/>
+ * The log file can be rotated when it reaches the max size, or when it's opened for the rotate interval.
+ * The rotated file is renamed to "{path}.{yyyyMMdd-HHmmss}" and can be compressed to a gzip file in the background.<br/>
+ * When the written bytes are forced to the storage device is decided by the FsyncPolicy.<br/>
+ * <br/>
+ * Use FileLogSink.builder(path) to create a sink.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 20:40
+ * @since 3.1
+ */
+public class FileLogSink extends OutputStream {
+
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    /**
+     * No size or time limit for rotation.
+     */
+    public static final long NO_LIMIT = 0;
+
+    /**
+     * Flushes every sink by its flush interval.
+     */
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "comandante-log-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Compresses rotated files.
+     */
+    private static final ExecutorService COMPRESSOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "comandante-log-compressor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path path;
+    private final long maxFileSize;
+    private final long rotateIntervalMillis;
+    private final boolean compress;
+    private final FsyncPolicy fsyncPolicy;
+    private final ByteBuffer buffer;
+    private final ScheduledFuture<?> flushTask;
+    private final Thread shutdownHook;
+
+    private FileChannel channel;
+    /**
+     * Size of the current file, not including the bytes in the buffer.
+     */
+    private long fileSize;
+    /**
+     * Time when the current file is opened.
+     */
+    private long openedAt;
+    private boolean closed = false;
+
+    private FileLogSink(Builder builder) throws IOException {
+        this.path = builder.path;
+        this.maxFileSize = builder.maxFileSize;
+        this.rotateIntervalMillis = builder.rotateIntervalMillis;
+        this.compress = builder.compress;
+        this.fsyncPolicy = builder.fsyncPolicy;
+        this.buffer = ByteBuffer.allocateDirect(builder.bufferSize);
+
+        open(builder.append);
+
+        this.flushTask = FLUSHER.scheduleWithFixedDelay(this::tick, builder.flushIntervalMillis, builder.flushIntervalMillis, TimeUnit.MILLISECONDS);
+        this.shutdownHook = new Thread(() -> {
+            try {
+                flush();
+            } catch (IOException ignored) {
+            }
+        }, "comandante-log-sink-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Create a builder of the sink.
+     *
+     * @param path path of the log file
+     * @return builder
+     */
+    public static Builder builder(String path) {
+        return new Builder(path);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Log sink is closed.");
+        }
+
+        rotateIfNeeded(len);
+
+        while (len > 0) {
+            int n = Math.min(len, buffer.remaining());
+            buffer.put(b, off, n);
+            off += n;
+            len -= n;
+            if (!buffer.hasRemaining()) {
+                writeBuffer();
+            }
+        }
+    }
+
+    /**
+     * Write the buffer to the file.
+     *
+     * @throws IOException IOException
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        if (!closed) {
+            writeBuffer();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        flushTask.cancel(false);
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignored) {
+            // the JVM is shutting down
+        }
+
+        try {
+            writeBuffer();
+            if (!FsyncPolicy.NEVER.equals(fsyncPolicy)) {
+                channel.force(true);
+            }
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    /**
+     * Executed by the flusher every flush interval.
+     */
+    private synchronized void tick() {
+        if (closed) {
+            return;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            if (rotateIntervalMillis > 0 && now - openedAt >= rotateIntervalMillis) {
+                // an empty file is never rotated, the interval restarts instead
+                if (fileSize + buffer.position() > 0) {
+                    rotate();
+                } else {
+                    openedAt = now;
+                }
+            } else if (buffer.position() > 0) {
+                writeBuffer();
+                if (FsyncPolicy.PERIODIC.equals(fsyncPolicy)) {
+                    channel.force(false);
+                }
+            }
+        } catch (IOException ignored) {
+            // there's no where to log the exception of the log sink, it will be thrown by the next write
+        }
+    }
+
+    private void open(boolean append) throws IOException {
+        if (append) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } else {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        fileSize = channel.size();
+        openedAt = System.currentTimeMillis();
+    }
+
+    private void writeBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            fileSize += channel.write(buffer);
+        }
+        buffer.clear();
+
+        if (FsyncPolicy.ALWAYS.equals(fsyncPolicy)) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Rotate the file before writing, if the file will exceed the max size or it's opened for the rotate interval.<br/>
+     * An empty file is never rotated, so a line larger than the max size is still written.
+     *
+     * @param len length of bytes to write
+     * @throws IOException IOException
+     */
+    private void rotateIfNeeded(int len) throws IOException {
+        long size = fileSize + buffer.position();
+        if (size == 0) {
+            return;
+        }
+
+        if (maxFileSize > 0 && size + len > maxFileSize
+                || rotateIntervalMillis > 0 && System.currentTimeMillis() - openedAt >= rotateIntervalMillis) {
+            rotate();
+        }
+    }
+
+    /**
+     * Close the current file, rename it and open a new one.<br/>
+     * If renaming fails, the current file is opened again to append, so the sink still works and the rotation is retried later.
+     *
+     * @throws IOException IOException
+     */
+    private void rotate() throws IOException {
+        writeBuffer();
+        if (!FsyncPolicy.NEVER.equals(fsyncPolicy)) {
+            channel.force(true);
+        }
+        channel.close();
+
+        Path rotated = rotatedPath();
+        try {
+            Files.move(path, rotated);
+        } catch (IOException e) {
+            long rotatingOpenedAt = openedAt;
+            open(true);
+            openedAt = rotatingOpenedAt;
+            throw e;
+        }
+        open(false);
+
+        if (compress) {
+            COMPRESSOR.execute(() -> compress(rotated));
+        }
+    }
+
+    private Path rotatedPath() {
+        String base = path.toString() + "." + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        Path rotated = Paths.get(base);
+        for (int i = 1; Files.exists(rotated) || Files.exists(Paths.get(rotated + ".gz")); i++) {
+            rotated = Paths.get(base + "-" + i);
+        }
+
+        return rotated;
+    }
+
+    /**
+     * Compress the rotated file to "{rotated}.gz" and delete it, the file is kept if compression failed.
+     *
+     * @param rotated rotated file
+     */
+    private static void compress(Path rotated) {
+        Path compressed = Paths.get(rotated + ".gz");
+        try {
+            try (InputStream in = Files.newInputStream(rotated);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+                byte[] bytes = new byte[64 * 1024];
+                int n;
+                while ((n = in.read(bytes)) > 0) {
+                    out.write(bytes, 0, n);
+                }
+            }
+            Files.delete(rotated);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(compressed);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * The policy of forcing written bytes to the storage device.
+     */
+    public enum FsyncPolicy {
+        /**
+         * Never force, it's decided by the operating system, the file is still forced when it's closed or rotated.
+         */
+        NEVER,
+        /**
+         * Force every flush interval.
+         */
+        PERIODIC,
+        /**
+         * Force every time the buffer is written.
+         */
+        ALWAYS
+    }
+
+    /**
+     * Builder of FileLogSink.
+     */
+    public static class Builder {
+
+        private final Path path;
+        private long maxFileSize = NO_LIMIT;
+        private long rotateIntervalMillis = NO_LIMIT;
+        private boolean compress = false;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.NEVER;
+        private boolean append = false;
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+
+        private Builder(String path) {
+            this.path = Paths.get(path);
+        }
+
+        /**
+         * Rotate the file when it will exceed the max size.
+         *
+         * @param maxFileSize max size of a log file in bytes, not positive value means no limit
+         * @return Builder
+         */
+        public Builder maxFileSize(long maxFileSize) {
+            this.maxFileSize = maxFileSize;
+            return this;
+        }
+
+        /**
+         * Rotate the file when it's opened for the interval.
+         *
+         * @param interval interval, not positive value means no limit
+         * @param unit     time unit of the interval
+         * @return Builder
+         */
+        public Builder rotateInterval(long interval, TimeUnit unit) {
+            this.rotateIntervalMillis = unit.toMillis(interval);
+            return this;
+        }
+
+        /**
+         * Compress rotated files to gzip files in the background.
+         *
+         * @param compress compress or not
+         * @return Builder
+         */
+        public Builder compress(boolean compress) {
+            this.compress = compress;
+            return this;
+        }
+
+        public Builder fsyncPolicy(FsyncPolicy fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+            return this;
+        }
+
+        /**
+         * Append to the existing file instead of truncating it.
+         *
+         * @param append append or not
+         * @return Builder
+         */
+        public Builder append(boolean append) {
+            this.append = append;
+            return this;
+        }
+
+        /**
+         * Size of the buffer collecting log bytes.
+         *
+         * @param bufferSize size in bytes, must be positive
+         * @return Builder
+         */
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * The buffer is written to the file by the background flusher every interval.
+         *
+         * @param interval interval, must be at least 1 millisecond
+         * @param unit     time unit of the interval
+         * @return Builder
+         */
+        public Builder flushInterval(long interval, TimeUnit unit) {
+            this.flushIntervalMillis = unit.toMillis(interval);
+            return this;
+        }
+
+        /**
+         * Build the sink and open the log file, the options are checked before the file is opened.
+         *
+         * @return FileLogSink
+         * @throws IOException          if opening the file fails
+         * @throws CommandLoadException runtime exception, if the buffer size or flush interval is not positive, or the fsync policy is null
+         */
+        public FileLogSink build() throws IOException, CommandLoadException {
+            Asserts.isTrue(bufferSize > 0, new CommandLoadException("Log buffer size must be positive."));
+            Asserts.isTrue(flushIntervalMillis > 0, new CommandLoadException("Log flush interval must be at least 1 millisecond."));
+            Asserts.notNull(fsyncPolicy, new CommandLoadException("FsyncPolicy can not be null."));
+
+            return new FileLogSink(this);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.riicarus.comandante.manage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Results of a batch of commands dispatched by CommandDispatcher.dispatchAll(), indexed by the commands' input order.<br/>
+ * Every command either has its results(the results of its analyzed executors in input order) or an error,
+ * an error of one command does not stop the other commands.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 18:20
+ * @since 3.1
+ */
+public class CommandBatchResult {
+
+    private final List<String> commands;
+    /**
+     * Results of every command, null if the command failed.
+     */
+    private final List<List<Object>> results;
+    /**
+     * Errors of every command, null if the command succeeded.
+     */
+    private final Throwable[] errors;
+
+    protected CommandBatchResult(List<String> commands) {
+        this.commands = Collections.unmodifiableList(commands);
+        this.results = new ArrayList<>(Collections.nCopies(commands.size(), null));
+        this.errors = new Throwable[commands.size()];
+    }
+
+    protected void setResults(int index, List<Object> results) {
+        this.results.set(index, results);
+    }
+
+    protected void setError(int index, Throwable error) {
+        this.errors[index] = error;
+    }
+
+    /**
+     * Get the count of commands in the batch.
+     *
+     * @return command count
+     */
+    public int size() {
+        return commands.size();
+    }
+
+    public List<String> getCommands() {
+        return commands;
+    }
+
+    public String getCommand(int index) {
+        return commands.get(index);
+    }
+
+    /**
+     * Get the results of the command.
+     *
+     * @param index index of the command in the batch
+     * @return results of the command's analyzed executors in input order, null if the command failed
+     */
+    public List<Object> getResults(int index) {
+        return results.get(index);
+    }
+
+    /**
+     * Get the error of the command, which is a CommandSyntaxException if analyzing failed, or a CommandExecutionException if execution failed.
+     *
+     * @param index index of the command in the batch
+     * @return error, null if the command succeeded
+     */
+    public Throwable getError(int index) {
+        return errors[index];
+    }
+
+    public boolean isSuccess(int index) {
+        return errors[index] == null;
+    }
+
+    public int getErrorCount() {
+        int count = 0;
+        for (Throwable error : errors) {
+            if (error != null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandBatchResult{size=" + size() + ", errors=" + getErrorCount() + "}";
+    }
+}
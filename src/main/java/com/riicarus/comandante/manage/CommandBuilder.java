@@ -1,8 +1,10 @@
 package com.riicarus.comandante.manage;
 
 import com.riicarus.comandante.exception.CommandBuildException;
+import com.riicarus.comandante.executor.CommandArgumentType;
 import com.riicarus.comandante.executor.CommandExecutor;
 import com.riicarus.comandante.executor.Executable;
+import com.riicarus.comandante.executor.StreamingExecutable;
 import com.riicarus.util.asserts.Asserts;
 
 /**
@@ -78,7 +80,8 @@ public class CommandBuilder {
                     commandItemManager.generateSerialId(),
                     name,
                     null);
-            commandItemManager.addLexicalItem(item, prevMainItem);
+            // another builder may add the same item concurrently, use the indexed one
+            item = commandItemManager.addLexicalItem(item, prevMainItem);
         } else {
             item = commandItemManager.getItem(name, prevMainItem);
         }
@@ -124,9 +127,7 @@ public class CommandBuilder {
                     commandItemManager.generateSerialId(),
                     name,
                     alias);
-            commandItemManager.addLexicalItem(item, prevMainItem);
-
-            prevItem = item;
+            prevItem = commandItemManager.addLexicalItem(item, prevMainItem);
         } else {
             prevItem = commandItemManager.getItem(name, prevMainItem);
         }
@@ -151,8 +152,25 @@ public class CommandBuilder {
      * @return CommandBuilder
      * @throws CommandBuildException runtime exception
      */
-    public <T> CommandBuilder arg(String name) throws CommandBuildException {
+    public CommandBuilder arg(String name) throws CommandBuildException {
+        return arg(name, null);
+    }
+
+    /**
+     * Build typed argument item, the argument is converted to the type when analyzing, and an invalid argument is a syntax error.<br/>
+     * The argument item following the same prev item is shared by commands, so it can only have one type.
+     *
+     * @param name name of argument item
+     * @param type type of the argument, null or STRING means no conversion
+     * @param <T>  value type
+     * @return CommandBuilder
+     * @throws CommandBuildException runtime exception, if the argument item is registered with another type
+     */
+    public <T> CommandBuilder arg(String name, CommandArgumentType<T> type) throws CommandBuildException {
         Asserts.notEmpty(name, new CommandBuildException("Node name can not be null."));
+        if (type == CommandArgumentType.STRING) {
+            type = null;
+        }
 
         if (CommandItem.ROOT.equals(prevItem)) {
             throw new CommandBuildException("Argument item can not be registered behind Root.");
@@ -164,13 +182,16 @@ public class CommandBuilder {
                     prevItem.getSerialId(),
                     commandItemManager.generateSerialId(),
                     FixedLexicalItemValue.ARGUMENT.getValue(),
-                    name);
-            commandItemManager.addLexicalItem(item, prevItem);
-
-            prevItem = item;
+                    name,
+                    type);
+            prevItem = commandItemManager.addLexicalItem(item, prevItem);
         } else {
             prevItem = commandItemManager.getItem(FixedLexicalItemValue.ARGUMENT.getValue(), prevItem);
         }
+        if (prevItem.getArgumentType() != type) {
+            throw new CommandBuildException("Argument <" + name + "> is already registered with type: "
+                    + (prevItem.getArgumentType() == null ? CommandArgumentType.STRING : prevItem.getArgumentType()) + ".");
+        }
 
         commandStrBuilder.append(LEFT_ARGUMENT_PREFIX).append(name).append(RIGHT_ARGUMENT_PREFIX).append(" ");
 
@@ -190,10 +211,10 @@ public class CommandBuilder {
 
         CommandExecutor commandExecutor = new CommandExecutor(executor, "");
 
-        commandItemManager.bindExecutor(prevItem, commandExecutor);
-
         commandStrBuilder.deleteCharAt(commandStrBuilder.length() - 1);
         commandExecutor.setCommandString(commandStrBuilder.toString());
+
+        commandItemManager.bindExecutor(prevItem, commandExecutor);
     }
 
     /**
@@ -210,10 +231,31 @@ public class CommandBuilder {
 
         CommandExecutor commandExecutor = new CommandExecutor(executor, usage);
 
-        commandItemManager.bindExecutor(prevItem, commandExecutor);
-
         commandStrBuilder.deleteCharAt(commandStrBuilder.length() - 1);
         commandExecutor.setCommandString(commandStrBuilder.toString());
+
+        commandItemManager.bindExecutor(prevItem, commandExecutor);
+    }
+
+    /**
+     * Build streaming command executor and register it to the current built command item which can not be ROOT as one executable node.<br/>
+     *
+     * @param executor implements of StreamingExecutable interface
+     * @throws CommandBuildException runtime exception
+     */
+    public void executor(StreamingExecutable executor) throws CommandBuildException {
+        executor((Executable) executor);
+    }
+
+    /**
+     * Build streaming command executor with usage info, see executor(StreamingExecutable).
+     *
+     * @param executor implements of StreamingExecutable interface
+     * @param usage    usage info for this command executor
+     * @throws CommandBuildException runtime exception
+     */
+    public void executor(StreamingExecutable executor, final String usage) throws CommandBuildException {
+        executor((Executable) executor, usage);
     }
 
     /**
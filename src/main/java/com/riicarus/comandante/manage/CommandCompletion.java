@@ -0,0 +1,92 @@
+package com.riicarus.comandante.manage;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Completions of the word at the cursor of a partial command input, created by CommandDispatcher.complete().<br/>
+ * A completion replaces the input in [start, end), end is the cursor.
+ * Opt items are completed with their prefix, like "--name" or "-n".
+ * An argument which can be written at the cursor is completed as a placeholder like "&lt;name&gt;", it should be shown but not inserted.
+ *
+ * @author Riicarus
+ * @create 2026-10-18 00:40
+ * @since 3.1
+ */
+public class CommandCompletion {
+    /**
+     * Default max count of completions.
+     */
+    public static final int DEFAULT_LIMIT = 32;
+
+    private final int start;
+    private final int end;
+    private final List<String> candidates;
+
+    protected CommandCompletion(int start, int end, List<String> candidates) {
+        this.start = start;
+        this.end = end;
+        this.candidates = Collections.unmodifiableList(candidates);
+    }
+
+    /**
+     * Create completions without candidates, used when nothing can be completed at the cursor.
+     *
+     * @param cursor cursor
+     * @return empty completions
+     */
+    protected static CommandCompletion empty(int cursor) {
+        return new CommandCompletion(cursor, cursor, Collections.emptyList());
+    }
+
+    /**
+     * Get the start of the word to complete.
+     *
+     * @return start index in the input
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Get the end of the word to complete, which is the cursor.
+     *
+     * @return end index in the input
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the completions ranked by the use count of their executors.
+     *
+     * @return completions
+     */
+    public List<String> getCandidates() {
+        return candidates;
+    }
+
+    public boolean isEmpty() {
+        return candidates.isEmpty();
+    }
+
+    /**
+     * Judge if a completion is the placeholder of an argument, main and opt items never start with "&lt;".
+     *
+     * @param candidate completion
+     * @return is argument placeholder
+     */
+    public static boolean isPlaceholder(String candidate) {
+        return candidate.startsWith("<");
+    }
+
+    @Override
+    public String toString() {
+        return "CommandCompletion{" +
+                "start=" + start +
+                ", end=" + end +
+                ", candidates=" + candidates +
+                '}';
+    }
+}
@@ -2,12 +2,28 @@ package com.riicarus.comandante.manage;
 
 import com.riicarus.comandante.exception.CommandExecutionException;
 import com.riicarus.comandante.exception.CommandNotFoundException;
+import com.riicarus.comandante.exception.CommandParallelExecutionException;
+import com.riicarus.comandante.exception.CommandSyntaxException;
+import com.riicarus.comandante.executor.CommandPipe;
 import com.riicarus.comandante.executor.GeneratedExecutor;
+import com.riicarus.comandante.main.CommandLogger;
+import com.riicarus.comandante.metrics.CommandMetrics;
+import com.riicarus.comandante.metrics.CommandMetricsSnapshot;
+import com.riicarus.util.asserts.Asserts;
 import com.riicarus.util.exception.NullObjectException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * [FEATURE INFO]<br/>
- * Command Dispatcher
+ * Command Dispatcher<br/>
+ * The dispatcher is safe for concurrent callers, each thread analyzes commands with its own GrammarAnalyzer,
+ * and all analyzers share the same CommandItemManager.
  *
  * @author Riicarus
  * @create 2022-10-15 23:27
@@ -15,44 +31,442 @@ import com.riicarus.util.exception.NullObjectException;
  */
 public class CommandDispatcher {
 
+    /**
+     * Count of commands analyzed by one task when a batch is analyzed in parallel.
+     */
+    private static final int BATCH_ANALYZE_CHUNK_SIZE = 64;
+    /**
+     * Max count of elements logged at once when draining the output pipe of a streaming pipeline.
+     */
+    private static final int PIPE_LOG_BATCH_SIZE = 256;
+
     /**
      * CommandRegister maintains the registered command items, used in the GrammarAnalyzer.
      */
     private final CommandRegister commandRegister;
     /**
-     * GrammarAnalyzer is used to parse command input and returns the analyzed executors.
+     * GrammarAnalyzer is used to parse command input and returns the analyzed executors.<br/>
+     * GrammarAnalyzer holds the state of the analyzing command, so every dispatching thread gets its own one.
+     */
+    private final ThreadLocal<GrammarAnalyzer> grammarAnalyzer;
+    /**
+     * Cache of analyzed commands, a repeated command will skip lexical and grammar analyzing.
+     */
+    private final CommandPlanCache planCache;
+    /**
+     * Limits of the command input, oversized commands are rejected before analyzing.
      */
-    private final GrammarAnalyzer grammarAnalyzer;
+    private final CommandLimits limits;
+    /**
+     * Metrics of dispatched commands.
+     */
+    private final CommandMetrics metrics = new CommandMetrics();
 
     public CommandDispatcher() {
-        this.commandRegister = new CommandRegister();
-        this.grammarAnalyzer = new GrammarAnalyzer(commandRegister.getCommandItemManager());
+        this(new CommandRegister());
     }
 
     public CommandDispatcher(CommandRegister commandRegister) {
+        this(commandRegister, CommandPlanCache.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a dispatcher with the given plan cache capacity.
+     *
+     * @param commandRegister   command register
+     * @param planCacheCapacity max count of cached analyzed commands, not positive value will disable the cache
+     */
+    public CommandDispatcher(CommandRegister commandRegister, int planCacheCapacity) {
+        this(commandRegister, planCacheCapacity, CommandLimits.DEFAULT);
+    }
+
+    /**
+     * Create a dispatcher with the given plan cache capacity and limits of command input.
+     *
+     * @param commandRegister   command register
+     * @param planCacheCapacity max count of cached analyzed commands, not positive value will disable the cache
+     * @param limits            limits of the command input
+     */
+    public CommandDispatcher(CommandRegister commandRegister, int planCacheCapacity, CommandLimits limits) {
         this.commandRegister = commandRegister;
-        this.grammarAnalyzer = new GrammarAnalyzer(commandRegister.getCommandItemManager());
+        this.limits = limits;
+        this.grammarAnalyzer = ThreadLocal.withInitial(() -> new GrammarAnalyzer(commandRegister.getCommandItemManager(), limits, metrics));
+        this.planCache = new CommandPlanCache(planCacheCapacity);
+    }
+
+    /**
+     * Dispatch and execute command, the results will be logged by CommandLogger.<br/>
+     * The output CommandPipe of a streaming pipeline is returned alive without being logged, the caller should read or cancel it.
+     *
+     * @param commandStr command string
+     * @return results of the command's analyzed executors in input order
+     * @throws CommandExecutionException runtime exception
+     * @throws CommandNotFoundException  runtime exception
+     * @throws NullObjectException       runtime exception
+     */
+    public List<Object> dispatch(final String commandStr) throws CommandExecutionException, CommandNotFoundException, NullObjectException {
+        return dispatch(commandStr, false);
     }
 
     /**
-     * Dispatch and execute command
+     * Dispatch and execute command, the results will be logged by CommandLogger.<br/>
+     * If drainPipes is true, the output CommandPipe of a streaming pipeline is logged while the pipeline is running,
+     * so it's already drained when returned, it's used by the CommandRunner for commands whose results are not read by anyone.
      *
      * @param commandStr command string
+     * @param drainPipes if the output pipes of streaming pipelines are drained and logged
+     * @return results of the command's analyzed executors in input order
      * @throws CommandExecutionException runtime exception
      * @throws CommandNotFoundException  runtime exception
      * @throws NullObjectException       runtime exception
      */
-    public void dispatch(final String commandStr) throws CommandExecutionException, CommandNotFoundException, NullObjectException {
-        GeneratedExecutor executor = grammarAnalyzer.analyze(commandStr);
+    public List<Object> dispatch(final String commandStr, final boolean drainPipes) throws CommandExecutionException, CommandNotFoundException, NullObjectException {
+        GeneratedExecutor executor = analyzeAndCount(commandStr);
 
+        List<Object> results;
         try {
-            executor.execute();
+            results = executor.execute();
+        } catch (CommandParallelExecutionException e) {
+            metrics.markExecutionError();
+            // Results of the succeeded segments are still logged.
+            logResults(e.getResults(), drainPipes);
+            throw e;
         } catch (Exception e) {
+            metrics.markExecutionError();
             throw new CommandExecutionException(e);
         }
+
+        logResults(results, drainPipes);
+
+        return results;
+    }
+
+    /**
+     * Dispatch command and execute its segments linked by the command linker(&amp;) as tasks of the given executor.<br/>
+     * The command is analyzed in the current thread, segments will not keep their input order.
+     * The output CommandPipe of a streaming pipeline is returned alive without being logged.
+     *
+     * @param commandStr      command string
+     * @param segmentExecutor the executor to run segments
+     * @return the future of the results of the command's analyzed executors in input order
+     * @throws CommandExecutionException runtime exception
+     * @throws CommandNotFoundException  runtime exception
+     * @throws NullObjectException       runtime exception
+     */
+    public CompletableFuture<List<Object>> dispatch(final String commandStr, final Executor segmentExecutor) throws CommandExecutionException, CommandNotFoundException, NullObjectException {
+        return dispatch(commandStr, segmentExecutor, false);
+    }
+
+    /**
+     * Dispatch command and execute its segments as tasks of the given executor, see dispatch(String, Executor).
+     *
+     * @param commandStr      command string
+     * @param segmentExecutor the executor to run segments
+     * @param drainPipes      if the output pipes of streaming pipelines are drained and logged, see dispatch(String, boolean)
+     * @return the future of the results of the command's analyzed executors in input order
+     * @throws CommandExecutionException runtime exception
+     * @throws CommandNotFoundException  runtime exception
+     * @throws NullObjectException       runtime exception
+     */
+    public CompletableFuture<List<Object>> dispatch(final String commandStr, final Executor segmentExecutor, final boolean drainPipes) throws CommandExecutionException, CommandNotFoundException, NullObjectException {
+        GeneratedExecutor executor = analyzeAndCount(commandStr);
+
+        return executor.execute(segmentExecutor).whenComplete((results, e) -> {
+            if (e != null) {
+                metrics.markExecutionError();
+            }
+        }).thenApply(results -> {
+            logResults(results, drainPipes);
+            return results;
+        });
+    }
+
+    /**
+     * Dispatch a batch of commands in the current thread, commands are analyzed and executed one by one in input order.<br/>
+     * An error of one command does not stop the other commands, all results are logged by CommandLogger at once.
+     *
+     * @param commands command strings
+     * @return results and errors of every command
+     * @throws CommandExecutionException runtime exception, if commands is null
+     */
+    public CommandBatchResult dispatchAll(final Collection<String> commands) throws CommandExecutionException {
+        return dispatchAll(commands, null, BatchOrder.SEQUENTIAL);
+    }
+
+    /**
+     * Dispatch a batch of commands in the current thread, see dispatchAll(Collection).
+     *
+     * @param commands command strings
+     * @return results and errors of every command
+     * @throws CommandExecutionException runtime exception, if commands is null
+     */
+    public CommandBatchResult dispatchAll(final Iterator<String> commands) throws CommandExecutionException {
+        Asserts.notNull(commands, new CommandExecutionException("Commands can not be null."));
+
+        List<String> commandList = new ArrayList<>();
+        while (commands.hasNext()) {
+            commandList.add(commands.next());
+        }
+
+        return dispatchAll(commandList);
+    }
+
+    /**
+     * Dispatch a batch of commands.<br/>
+     * All commands are analyzed against the same snapshot of registered items. If the executor is given,
+     * the commands are analyzed by tasks of the executor in chunks, every task uses its thread's own GrammarAnalyzer.<br/>
+     * Then the commands are executed in the given order, an error of one command does not stop the other commands.
+     * All results are logged by CommandLogger at once after execution, output CommandPipes of streaming pipelines are returned alive without being logged.
+     *
+     * @param commands command strings
+     * @param executor the executor to analyze and execute commands, null means the current thread
+     * @param order    execution order, CONCURRENT needs an executor
+     * @return results and errors of every command
+     * @throws CommandExecutionException runtime exception, if commands is null
+     */
+    public CommandBatchResult dispatchAll(final Collection<String> commands, final Executor executor, final BatchOrder order) throws CommandExecutionException {
+        Asserts.notNull(commands, new CommandExecutionException("Commands can not be null."));
+
+        final List<String> commandList = new ArrayList<>(commands);
+        final int size = commandList.size();
+        final CommandBatchResult batch = new CommandBatchResult(commandList);
+        final GeneratedExecutor[] executors = new GeneratedExecutor[size];
+        final CommandRegistrySnapshot registry = commandRegister.getCommandItemManager().getSnapshot();
+
+        if (executor == null || size <= BATCH_ANALYZE_CHUNK_SIZE) {
+            analyzeAll(commandList, 0, size, executors, batch, registry);
+        } else {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (int from = 0; from < size; from += BATCH_ANALYZE_CHUNK_SIZE) {
+                final int start = from;
+                final int to = Math.min(from + BATCH_ANALYZE_CHUNK_SIZE, size);
+                tasks.add(CompletableFuture.runAsync(() -> analyzeAll(commandList, start, to, executors, batch, registry), executor));
+            }
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        }
+
+        if (executor == null || !BatchOrder.CONCURRENT.equals(order)) {
+            for (int i = 0; i < size; i++) {
+                executeOne(executors[i], i, batch);
+            }
+        } else {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                final int index = i;
+                tasks.add(CompletableFuture.runAsync(() -> executeOne(executors[index], index, batch), executor));
+            }
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        }
+
+        List<Object> results = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (batch.isSuccess(i)) {
+                results.addAll(batch.getResults(i));
+            }
+        }
+        logResults(results, false);
+
+        return batch;
+    }
+
+    /**
+     * Analyze commands of the batch in the range, errors are put to the batch result.
+     *
+     * @param commands    commands of the batch
+     * @param from        first index, inclusive
+     * @param to          last index, exclusive
+     * @param executors   generated executors of the batch
+     * @param batch       batch result
+     * @param registry    snapshot of registered items
+     */
+    private void analyzeAll(List<String> commands, int from, int to, GeneratedExecutor[] executors, CommandBatchResult batch, CommandRegistrySnapshot registry) {
+        GrammarAnalyzer analyzer = grammarAnalyzer.get();
+        for (int i = from; i < to; i++) {
+            metrics.markDispatched();
+            try {
+                String commandStr = commands.get(i);
+                limits.checkInput(commandStr);
+                executors[i] = analyze(commandStr, analyzer, registry);
+            } catch (Exception e) {
+                markAnalyzeError(e);
+                batch.setError(i, e);
+            }
+        }
+    }
+
+    /**
+     * Execute one analyzed command of the batch, the results or the error is put to the batch result.
+     *
+     * @param executor generated executor, null if analyzing failed
+     * @param index    index of the command in the batch
+     * @param batch    batch result
+     */
+    private void executeOne(GeneratedExecutor executor, int index, CommandBatchResult batch) {
+        if (executor == null) {
+            return;
+        }
+
+        try {
+            batch.setResults(index, executor.execute());
+        } catch (CommandParallelExecutionException e) {
+            metrics.markExecutionError();
+            batch.setError(index, e);
+        } catch (Exception e) {
+            metrics.markExecutionError();
+            batch.setError(index, new CommandExecutionException(e));
+        }
+    }
+
+    /**
+     * Get the generated executor of the command from the plan cache, or analyze the command if it's not cached.
+     *
+     * @param commandStr command string
+     * @return generated executor
+     */
+    protected GeneratedExecutor analyze(final String commandStr) {
+        // Reject oversized command before hashing it for the plan cache.
+        limits.checkInput(commandStr);
+
+        // The command is analyzed against one snapshot, registrations during analyzing only go to the next version.
+        return analyze(commandStr, grammarAnalyzer.get(), commandRegister.getCommandItemManager().getSnapshot());
+    }
+
+    /**
+     * Count the command as dispatched and analyze it, the error of analyzing is counted by its kind.
+     *
+     * @param commandStr command string
+     * @return generated executor
+     */
+    private GeneratedExecutor analyzeAndCount(final String commandStr) {
+        metrics.markDispatched();
+        try {
+            return analyze(commandStr);
+        } catch (RuntimeException e) {
+            markAnalyzeError(e);
+            throw e;
+        }
+    }
+
+    private void markAnalyzeError(Exception e) {
+        if (e instanceof CommandNotFoundException) {
+            metrics.markNotFoundError();
+        } else if (e instanceof CommandSyntaxException) {
+            metrics.markSyntaxError();
+        } else {
+            metrics.markExecutionError();
+        }
+    }
+
+    private GeneratedExecutor analyze(final String commandStr, GrammarAnalyzer analyzer, CommandRegistrySnapshot registry) {
+        GeneratedExecutor executor = planCache.get(commandStr, registry.getVersion());
+        if (executor == null) {
+            executor = analyzer.analyze(commandStr, registry);
+            planCache.put(commandStr, executor, registry.getVersion());
+        }
+
+        return executor;
+    }
+
+    /**
+     * Log results of a command by CommandLogger.<br/>
+     * The output CommandPipe of a streaming pipeline is drained by logging its elements one by one if drainPipes is true,
+     * otherwise it's not logged and left to the caller.
+     *
+     * @param results    results of the command's analyzed executors
+     * @param drainPipes if the output pipes are drained and logged
+     */
+    private void logResults(List<Object> results, boolean drainPipes) {
+        int from = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) instanceof CommandPipe) {
+                CommandLogger.logAll(results.subList(from, i));
+                from = i + 1;
+                // A cancelled pipe belongs to a failed command, nothing will be written to it.
+                CommandPipe pipe = (CommandPipe) results.get(i);
+                if (!drainPipes || pipe.isCancelled()) {
+                    continue;
+                }
+                // The output of a streaming pipeline is logged while it's running.
+                List<Object> elements = new ArrayList<>(PIPE_LOG_BATCH_SIZE);
+                try {
+                    while (pipe.take(elements, PIPE_LOG_BATCH_SIZE) > 0) {
+                        CommandLogger.logAll(elements);
+                        elements.clear();
+                    }
+                } catch (InterruptedException e) {
+                    pipe.cancel();
+                    Thread.currentThread().interrupt();
+                    throw new CommandExecutionException(e);
+                }
+            }
+        }
+        CommandLogger.logAll(results.subList(from, results.size()));
+    }
+
+    /**
+     * Complete the word at the cursor of a partial command input, used by interactive consoles on every keystroke.<br/>
+     * The input is analyzed against the published snapshot but not executed or counted in the metrics, see GrammarAnalyzer.complete().
+     *
+     * @param partialInput partial command input
+     * @param cursor       cursor in the input
+     * @return at most CommandCompletion.DEFAULT_LIMIT completions, ranked by the use count of their executors
+     * @throws CommandSyntaxException runtime exception, if the input is null
+     */
+    public CommandCompletion complete(final String partialInput, final int cursor) throws CommandSyntaxException {
+        return complete(partialInput, cursor, CommandCompletion.DEFAULT_LIMIT);
+    }
+
+    /**
+     * Complete the word at the cursor of a partial command input with the given max count of completions.
+     *
+     * @param partialInput partial command input
+     * @param cursor       cursor in the input
+     * @param limit        max count of completions
+     * @return completions ranked by the use count of their executors
+     * @throws CommandSyntaxException runtime exception, if the input is null
+     */
+    public CommandCompletion complete(final String partialInput, final int cursor, final int limit) throws CommandSyntaxException {
+        Asserts.notNull(partialInput, new CommandSyntaxException("Partial input can not be null."));
+
+        return grammarAnalyzer.get().complete(partialInput, cursor, commandRegister.getCommandItemManager().getSnapshot(), limit);
+    }
+
+    public CommandPlanCache getPlanCache() {
+        return planCache;
+    }
+
+    public CommandLimits getLimits() {
+        return limits;
+    }
+
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Take a snapshot of the metrics of dispatched commands and registered executors.
+     *
+     * @return metrics snapshot
+     */
+    public CommandMetricsSnapshot getStats() {
+        return metrics.snapshot(commandRegister.getCommandItemManager().getExecutorMetrics());
     }
 
     public CommandRegister getCommandRegister() {
         return commandRegister;
     }
+
+    /**
+     * Execution order of a batch of commands.
+     */
+    public enum BatchOrder {
+        /**
+         * Commands are executed one by one in input order.
+         */
+        SEQUENTIAL,
+        /**
+         * Commands are executed concurrently as tasks of the executor, they will not keep their input order.
+         */
+        CONCURRENT
+    }
 }
@@ -0,0 +1,100 @@
+package com.riicarus.comandante.manage;
+
+import com.riicarus.comandante.executor.CommandExecutor;
+
+import java.util.Arrays;
+
+/**
+ * [FEATURE INFO]<br/>
+ * The binding of CommandItem and its executor, indexed by the item's serial id, serial ids are dense so the table is compact.<br/>
+ * Executors are stored in chunks, a copy shares all chunks with the original one and copies a chunk only when it writes to it,
+ * so binding an executor to a copy does not copy the whole table.<br/>
+ * The table is not thread-safe, CommandItemManager writes to a copy of the published table and publishes the copy as a new snapshot.
+ *
+ * @author Riicarus
+ * @create 2026-10-18 15:20
+ * @since 3.1
+ */
+class CommandExecutorTable {
+    /**
+     * A chunk has 256 executors.
+     */
+    private static final int CHUNK_SHIFT = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private CommandExecutor[][] chunks;
+    /**
+     * If a chunk is owned by this table, chunks which are not owned are shared with other copies and must be copied before writing.
+     */
+    private boolean[] owned;
+
+    CommandExecutorTable() {
+        this.chunks = new CommandExecutor[0][];
+        this.owned = new boolean[0];
+    }
+
+    private CommandExecutorTable(CommandExecutor[][] chunks) {
+        this.chunks = chunks;
+        this.owned = new boolean[chunks.length];
+    }
+
+    /**
+     * Create a copy of the table, binding executors to the copy does not change this table.
+     *
+     * @return copy
+     */
+    CommandExecutorTable copy() {
+        Arrays.fill(owned, false);
+        return new CommandExecutorTable(chunks.clone());
+    }
+
+    /**
+     * Get the executor bound to the item.
+     *
+     * @param serialId serial id of the item
+     * @return executor, null if there's none
+     */
+    CommandExecutor get(int serialId) {
+        int chunk = serialId >>> CHUNK_SHIFT;
+        // chunks which have no bound executors are not allocated
+        CommandExecutor[] executors = chunk < chunks.length ? chunks[chunk] : null;
+        return executors == null ? null : executors[serialId & CHUNK_MASK];
+    }
+
+    /**
+     * Bind an executor to the item, if the item already has an executor, the executor is not bound.
+     *
+     * @param serialId serial id of the item
+     * @param executor executor
+     * @return if the executor is bound
+     */
+    boolean bind(int serialId, CommandExecutor executor) {
+        if (get(serialId) != null) {
+            return false;
+        }
+
+        int chunk = serialId >>> CHUNK_SHIFT;
+        if (chunk >= chunks.length) {
+            int length = Math.max(chunk + 1, chunks.length * 2);
+            chunks = Arrays.copyOf(chunks, length);
+            owned = Arrays.copyOf(owned, length);
+        }
+        if (!owned[chunk]) {
+            chunks[chunk] = chunks[chunk] == null ? new CommandExecutor[CHUNK_SIZE] : chunks[chunk].clone();
+            owned[chunk] = true;
+        }
+        chunks[chunk][serialId & CHUNK_MASK] = executor;
+
+        return true;
+    }
+
+    /**
+     * Get the upper bound of serial ids of the bound items.
+     *
+     * @return upper bound, exclusive
+     */
+    int length() {
+        return chunks.length << CHUNK_SHIFT;
+    }
+}
@@ -1,16 +1,28 @@
 package com.riicarus.comandante.manage;
 
 import com.riicarus.comandante.exception.CommandConsumeException;
+import com.riicarus.comandante.exception.CommandLoadException;
 import com.riicarus.comandante.exception.CommandProduceException;
 import com.riicarus.comandante.main.CommandLogger;
+import com.riicarus.comandante.metrics.ThroughputMeter;
+import com.riicarus.util.asserts.Asserts;
 
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * [FEATURE INFO]<br/>
- * The command input handler uses producer-consumer pattern and maintains a block command input queue with 10 max size.<br/>
+ * The command input handler uses producer-consumer pattern and maintains a block command input queue.<br/>
  * The consumer is CommandRunner, and the producer is the API provided by CommandLauncher: CommandLauncher.dispatchToCache(String);<br/>
+ * <br/>
+ * The queue can be bounded or unbounded:<br/>
+ * 1. a bounded queue is an ArrayBlockingQueue, what to do when it's full is decided by the OverflowPolicy;<br/>
+ * 2. an unbounded queue is a lock-free LinkedTransferQueue, which suits many producers and one consumer.<br/>
  *
  * @author Riicarus
  * @create 2022-10-15 16:31
@@ -18,10 +30,67 @@ import java.util.concurrent.BlockingQueue;
  */
 public class CommandInputHandler {
 
+    /**
+     * The default capacity of the bounded command input queue.
+     */
+    public static final int DEFAULT_CAPACITY = 10;
+    /**
+     * The capacity refers to an unbounded command input queue.
+     */
+    public static final int UNBOUNDED = 0;
+
     /**
      * The command input blocking queue.
      */
-    private static final BlockingQueue<String> commandQueue = new ArrayBlockingQueue<>(10, true);
+    private final BlockingQueue<PendingCommand> commandQueue;
+    /**
+     * What to do when the bounded command input queue is full.
+     */
+    private final OverflowPolicy overflowPolicy;
+    /**
+     * Statistics of the queue, they are striped counters and cheap to keep updating.
+     */
+    private final ThroughputMeter enqueued = new ThroughputMeter();
+    private final ThroughputMeter dequeued = new ThroughputMeter();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    /**
+     * Count of producers blocked by the full queue.
+     */
+    private final AtomicInteger blockedProducers = new AtomicInteger(0);
+
+    /**
+     * Create a handler with a fair bounded queue of the default capacity, producers will block when it's full.
+     */
+    public CommandInputHandler() {
+        this(DEFAULT_CAPACITY, true, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Create a handler with the given queue configuration.
+     *
+     * @param capacity       capacity of the queue, UNBOUNDED(or any non-positive value) refers to a lock-free unbounded queue
+     * @param fair           if the bounded queue's lock is fair, the fair lock keeps blocked producers in FIFO order but is slower
+     * @param overflowPolicy what to do when the bounded queue is full
+     */
+    public CommandInputHandler(int capacity, boolean fair, OverflowPolicy overflowPolicy) {
+        this(capacity > 0 ? new ArrayBlockingQueue<>(capacity, fair) : new LinkedTransferQueue<>(), overflowPolicy);
+    }
+
+    /**
+     * Create a handler with a customized queue.
+     *
+     * @param commandQueue   the command input queue
+     * @param overflowPolicy what to do when the queue is full
+     * @throws CommandLoadException runtime exception
+     */
+    public CommandInputHandler(BlockingQueue<PendingCommand> commandQueue, OverflowPolicy overflowPolicy) throws CommandLoadException {
+        Asserts.notNull(commandQueue, new CommandLoadException("Command queue can not be null."));
+        Asserts.notNull(overflowPolicy, new CommandLoadException("Overflow policy can not be null."));
+
+        this.commandQueue = commandQueue;
+        this.overflowPolicy = overflowPolicy;
+    }
 
     /**
      * Produce commands and put them to the blocking queue
@@ -29,27 +98,55 @@ public class CommandInputHandler {
      * @param command command input stream
      * @throws CommandProduceException exception
      */
-    private void produce(String command) throws CommandProduceException {
-        try {
-            commandQueue.put(command);
-        } catch (InterruptedException e) {
-            throw new CommandProduceException();
+    private void produce(PendingCommand command) throws CommandProduceException {
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                while (!commandQueue.offer(command)) {
+                    PendingCommand dropped = commandQueue.poll();
+                    if (dropped != null) {
+                        droppedCount.increment();
+                        CommandLogger.log("COMMAND DROPPED: " + dropped);
+                        dropped.getResult().completeExceptionally(new CommandProduceException("Command dropped from the full input queue: " + dropped));
+                    }
+                }
+                break;
+            case REJECT:
+                if (!commandQueue.offer(command)) {
+                    rejectedCount.increment();
+                    throw new CommandProduceException("Command input queue is full, command rejected: " + command);
+                }
+                break;
+            case BLOCK:
+            default:
+                // Only producers finding the queue full are counted as blocked.
+                if (!commandQueue.offer(command)) {
+                    blockedProducers.incrementAndGet();
+                    try {
+                        commandQueue.put(command);
+                    } catch (InterruptedException e) {
+                        throw new CommandProduceException();
+                    } finally {
+                        blockedProducers.decrementAndGet();
+                    }
+                }
         }
+        enqueued.mark();
     }
 
     /**
      * Consume one command from the blocking queue, invoked by CommandRunner.
      *
-     * @return command string
+     * @return pending command
      * @throws CommandConsumeException exception
      */
-    public String consume() throws CommandConsumeException {
-        String command ;
+    public PendingCommand consume() throws CommandConsumeException {
+        PendingCommand command ;
         try {
             command = commandQueue.take();
         } catch (InterruptedException e) {
             throw new CommandConsumeException();
         }
+        dequeued.mark();
 
         return command;
     }
@@ -62,7 +159,96 @@ public class CommandInputHandler {
      */
     public void input(String command) throws CommandProduceException {
         CommandLogger.log("COMMAND RECEIVER ECHO: " + command);
-        produce(command);
+        produce(new PendingCommand(command));
     }
 
+    /**
+     * The asynchronous command input method provided to outsider.<br/>
+     * If the command can not be put to the queue, the returned future will be completed exceptionally with a CommandProduceException.<br/>
+     * Output CommandPipes of streaming pipelines in the results are not logged, the caller should read or cancel them.
+     *
+     * @param command command input string
+     * @return the future of the command's execution results
+     */
+    public CompletableFuture<List<Object>> inputAsync(String command) {
+        CommandLogger.log("COMMAND RECEIVER ECHO: " + command);
+        PendingCommand pendingCommand = new PendingCommand(command, false);
+        try {
+            produce(pendingCommand);
+        } catch (CommandProduceException e) {
+            pendingCommand.getResult().completeExceptionally(e);
+        }
+
+        return pendingCommand.getResult();
+    }
+
+    /**
+     * Get the count of commands waiting in the queue.
+     *
+     * @return queue size
+     */
+    public int size() {
+        return commandQueue.size();
+    }
+
+    /**
+     * Get the remaining capacity of the queue, Integer.MAX_VALUE for an unbounded queue.
+     *
+     * @return remaining capacity
+     */
+    public int remainingCapacity() {
+        return commandQueue.remainingCapacity();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Get the meter of commands put to the queue.
+     *
+     * @return enqueue meter
+     */
+    public ThroughputMeter getEnqueued() {
+        return enqueued;
+    }
+
+    /**
+     * Get the meter of commands taken from the queue.
+     *
+     * @return dequeue meter
+     */
+    public ThroughputMeter getDequeued() {
+        return dequeued;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public int getBlockedProducerCount() {
+        return blockedProducers.get();
+    }
+
+    /**
+     * What to do when producing a command to a full queue.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Block the producer until there's space in the queue.
+         */
+        BLOCK,
+        /**
+         * Drop the oldest command in the queue to make space for the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Reject the new command with a CommandProduceException, or an exceptionally completed future for inputAsync().
+         */
+        REJECT
+    }
 }
@@ -1,6 +1,7 @@
 package com.riicarus.comandante.manage;
 
-import java.util.Objects;
+import com.riicarus.comandante.exception.CommandBuildException;
+import com.riicarus.comandante.executor.CommandArgumentType;
 
 /**
  * [FEATURE INFO]<br/>
@@ -16,13 +17,17 @@ public class CommandItem {
      * The ROOT's item definition.
      */
     public static final CommandItem ROOT = new CommandItem(CommandItemType.ARGUMENT, 0, 0, "ROOT", null);
+    /**
+     * The max serial id can be held by the 30 bits id fields of the markword.
+     */
+    public static final int MAX_SERIAL_ID = (1 << 30) - 1;
     /**
      * markword contains three parts: <br/>
-     * [0:13]: current item's serial id <br/>
-     * [14:27]: previous item's serial id which is used to defer items with the same type and name but in different command context <br/>
-     * [28:31]: command item type <br/>
+     * [0:29]: current item's serial id <br/>
+     * [30:59]: previous item's serial id which is used to defer items with the same type and name but in different command context <br/>
+     * [60:63]: command item type <br/>
      */
-    private final int markword;
+    private final long markword;
     /**
      * Value is the detail info of the item <br/>
      * It's used to defer items with the same type. <br/>
@@ -33,11 +38,35 @@ public class CommandItem {
      * For opt item, subName is its alias. While for argument item, subName is its name.
      */
     private final String subName;
+    /**
+     * For argument item, it's the type which the argument is converted to, null means the argument is a string.
+     */
+    private final CommandArgumentType<?> argumentType;
 
     public CommandItem(CommandItemType type, int prevSerialId, int serialId, String name, String subName) {
+        this(type, prevSerialId, serialId, name, subName, null);
+    }
+
+    public CommandItem(CommandItemType type, int prevSerialId, int serialId, String name, String subName, CommandArgumentType<?> argumentType) {
+        checkSerialId(prevSerialId);
+        checkSerialId(serialId);
+
         this.markword = constructMarkword(type.getValue(), prevSerialId, serialId);
         this.name = name;
         this.subName = subName;
+        this.argumentType = argumentType;
+    }
+
+    /**
+     * Check if the serial id can be held by the markword, a wrong id will break the neighbouring fields.
+     *
+     * @param serialId serial id
+     * @throws CommandBuildException runtime exception
+     */
+    private static void checkSerialId(int serialId) throws CommandBuildException {
+        if (serialId < 0 || serialId > MAX_SERIAL_ID) {
+            throw new CommandBuildException("Serial id out of range [0, " + MAX_SERIAL_ID + "], get: " + serialId);
+        }
     }
 
     /**
@@ -48,24 +77,24 @@ public class CommandItem {
      * @param serialId     current item's serial id, which is the current itemCount maintained by CommandItemManager
      * @return current item's markword
      */
-    private int constructMarkword(int type, int prevSerialId, int serialId) {
-        return type << 28 | prevSerialId << 14 | serialId;
+    private long constructMarkword(int type, int prevSerialId, int serialId) {
+        return (long) type << 60 | (long) prevSerialId << 30 | serialId;
     }
 
-    public int getMarkword() {
+    public long getMarkword() {
         return markword;
     }
 
     public int getType() {
-        return markword >>> 28;
+        return (int) (markword >>> 60);
     }
 
     public int getPrevSerialId() {
-        return (markword & 0xfffc000) >>> 14;
+        return (int) (markword >>> 30) & MAX_SERIAL_ID;
     }
 
     public int getSerialId() {
-        return markword & 0x3fff;
+        return (int) markword & MAX_SERIAL_ID;
     }
 
     public String getName() {
@@ -76,6 +105,10 @@ public class CommandItem {
         return subName;
     }
 
+    public CommandArgumentType<?> getArgumentType() {
+        return argumentType;
+    }
+
     /**
      * Compare two items' markword to judge if they are the same
      *
@@ -92,6 +125,6 @@ public class CommandItem {
 
     @Override
     public int hashCode() {
-        return Objects.hash(markword);
+        return Long.hashCode(markword);
     }
 }
@@ -0,0 +1,325 @@
+package com.riicarus.comandante.manage;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * [FEATURE INFO]<br/>
+ * A flat open-addressing hash table which indexes command items by the key (prevSerialId, name).<br/>
+ * <br/>
+ * Each lookup hashes the previous item's serial id together with the name and probes linearly,
+ * so the cost does not depend on how many items share the same name.<br/>
+ * The slots are stored in chunks, a copy shares all chunks with the original one and copies a chunk only when it writes to it,
+ * so copying the index and putting an item to the copy costs much less than copying the whole table.<br/>
+ * The index is not thread-safe, CommandItemManager writes to a copy of the published index and publishes the copy as a new snapshot.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 10:12
+ * @since 3.1
+ */
+public class CommandItemIndex {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    /**
+     * The table will be resized when its size reaches 3/4 of the capacity.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+    /**
+     * A chunk has 256 slots, tables smaller than it have only one chunk.
+     */
+    private static final int CHUNK_SHIFT = 8;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    /**
+     * Previous items' serial id of every slot.
+     */
+    private int[][] prevSerialIds;
+    /**
+     * Keys(name or alias) of every slot, null refers to an empty slot.
+     */
+    private String[][] keys;
+    /**
+     * Indexed items of every slot.
+     */
+    private CommandItem[][] items;
+    /**
+     * If a chunk is owned by this index, chunks which are not owned are shared with other copies and must be copied before writing.
+     */
+    private boolean[] owned;
+    /**
+     * The count of slots.
+     */
+    private int capacity;
+    /**
+     * The count of indexed items.
+     */
+    private int size = 0;
+    /**
+     * The count of items which will trigger the next resize.
+     */
+    private int threshold;
+
+    public CommandItemIndex() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a copy of the index, writing to the copy does not change this index.<br/>
+     * Chunks are shared by the copy and this index, so neither of them writes to them in place any more.
+     *
+     * @return copy
+     */
+    public CommandItemIndex copy() {
+        CommandItemIndex copy = new CommandItemIndex(prevSerialIds.clone(), keys.clone(), items.clone(), capacity);
+        copy.size = size;
+        Arrays.fill(owned, false);
+
+        return copy;
+    }
+
+    /**
+     * Restore an index from a saved table layout, every item is put to its saved slot without hashing.<br/>
+     * The layout must be saved with the same hash function, see CommandRegistryFile.
+     *
+     * @param capacity capacity of the saved table
+     * @param slots    saved slot of every item
+     * @param items    items
+     * @param keys     key(name or alias) of every item
+     * @return index
+     * @throws IllegalArgumentException if the layout is invalid
+     */
+    static CommandItemIndex restore(int capacity, int[] slots, CommandItem[] items, String[] keys) throws IllegalArgumentException {
+        // a saved index is never larger than 16 times of the highest one bit of its size, larger ones would waste memory or overflow
+        long maxCapacity = Math.max(DEFAULT_CAPACITY, (long) Integer.highestOneBit(items.length) << 4);
+        if (capacity < DEFAULT_CAPACITY || capacity > maxCapacity || Integer.bitCount(capacity) != 1 || items.length >= (int) (capacity * LOAD_FACTOR)) {
+            throw new IllegalArgumentException("Invalid index capacity: " + capacity);
+        }
+
+        CommandItemIndex index = new CommandItemIndex(capacity);
+        for (int i = 0; i < items.length; i++) {
+            int slot = slots[i];
+            int chunk = slot >>> CHUNK_SHIFT;
+            int j = slot & CHUNK_MASK;
+            if (index.keys[chunk][j] != null) {
+                throw new IllegalArgumentException("Slot " + slot + " is used by more than one item.");
+            }
+            index.prevSerialIds[chunk][j] = items[i].getPrevSerialId();
+            index.keys[chunk][j] = keys[i];
+            index.items[chunk][j] = items[i];
+        }
+        index.size = items.length;
+
+        return index;
+    }
+
+    private CommandItemIndex(int capacity) {
+        allocate(capacity);
+    }
+
+    private CommandItemIndex(int[][] prevSerialIds, String[][] keys, CommandItem[][] items, int capacity) {
+        this.prevSerialIds = prevSerialIds;
+        this.keys = keys;
+        this.items = items;
+        this.owned = new boolean[keys.length];
+        this.capacity = capacity;
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void allocate(int capacity) {
+        int chunkSize = Math.min(capacity, 1 << CHUNK_SHIFT);
+        int chunks = capacity / chunkSize;
+        this.prevSerialIds = new int[chunks][chunkSize];
+        this.keys = new String[chunks][chunkSize];
+        this.items = new CommandItem[chunks][chunkSize];
+        this.owned = new boolean[chunks];
+        Arrays.fill(owned, true);
+        this.capacity = capacity;
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Copy a shared chunk before writing to it.
+     *
+     * @param chunk index of the chunk
+     */
+    private void own(int chunk) {
+        if (!owned[chunk]) {
+            prevSerialIds[chunk] = prevSerialIds[chunk].clone();
+            keys[chunk] = keys[chunk].clone();
+            items[chunk] = items[chunk].clone();
+            owned[chunk] = true;
+        }
+    }
+
+    /**
+     * Put an item to the index, if the key is already indexed, the old item will be replaced.
+     *
+     * @param prevSerialId previous item's serial id
+     * @param key          name or alias of the item
+     * @param item         the item to index
+     */
+    public void put(int prevSerialId, String key, CommandItem item) {
+        if (size >= threshold) {
+            resize();
+        }
+
+        int mask = capacity - 1;
+        int i = hash(prevSerialId, key.hashCode()) & mask;
+        String k;
+        while ((k = keys[i >>> CHUNK_SHIFT][i & CHUNK_MASK]) != null) {
+            if (prevSerialIds[i >>> CHUNK_SHIFT][i & CHUNK_MASK] == prevSerialId && k.equals(key)) {
+                own(i >>> CHUNK_SHIFT);
+                items[i >>> CHUNK_SHIFT][i & CHUNK_MASK] = item;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        int chunk = i >>> CHUNK_SHIFT;
+        int j = i & CHUNK_MASK;
+        own(chunk);
+        prevSerialIds[chunk][j] = prevSerialId;
+        keys[chunk][j] = key;
+        items[chunk][j] = item;
+        size++;
+    }
+
+    /**
+     * Get the item indexed by the given key.
+     *
+     * @param prevSerialId previous item's serial id
+     * @param key          name or alias of the item
+     * @return CommandItem, null if not found
+     */
+    public CommandItem get(int prevSerialId, String key) {
+        int slot = slotOf(prevSerialId, key);
+        return slot < 0 ? null : items[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK];
+    }
+
+    /**
+     * Get the item indexed by the key which is a region of the source string, no string will be created for the key.
+     *
+     * @param prevSerialId previous item's serial id
+     * @param source       source string containing the key
+     * @param offset       offset of the key in the source
+     * @param length       length of the key
+     * @return CommandItem, null if not found
+     */
+    public CommandItem get(int prevSerialId, String source, int offset, int length) {
+        // the same as String.hashCode()
+        int keyHash = 0;
+        for (int j = offset, end = offset + length; j < end; j++) {
+            keyHash = 31 * keyHash + source.charAt(j);
+        }
+
+        int mask = capacity - 1;
+        int i = hash(prevSerialId, keyHash) & mask;
+        String k;
+        while ((k = keys[i >>> CHUNK_SHIFT][i & CHUNK_MASK]) != null) {
+            if (prevSerialIds[i >>> CHUNK_SHIFT][i & CHUNK_MASK] == prevSerialId && k.length() == length && k.regionMatches(0, source, offset, length)) {
+                return items[i >>> CHUNK_SHIFT][i & CHUNK_MASK];
+            }
+            i = (i + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Visit every indexed item, in no particular order.
+     *
+     * @param action action for each item
+     */
+    public void forEach(Consumer<CommandItem> action) {
+        for (int chunk = 0; chunk < keys.length; chunk++) {
+            String[] chunkKeys = keys[chunk];
+            for (int j = 0; j < chunkKeys.length; j++) {
+                if (chunkKeys[j] != null) {
+                    action.accept(items[chunk][j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the slot of an indexed key, used to save the table layout.
+     *
+     * @param prevSerialId previous item's serial id
+     * @param key          name or alias of the item
+     * @return slot, -1 if not found
+     */
+    int slotOf(int prevSerialId, String key) {
+        int mask = capacity - 1;
+        int i = hash(prevSerialId, key.hashCode()) & mask;
+        String k;
+        while ((k = keys[i >>> CHUNK_SHIFT][i & CHUNK_MASK]) != null) {
+            if (prevSerialIds[i >>> CHUNK_SHIFT][i & CHUNK_MASK] == prevSerialId && k.equals(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    public boolean contains(int prevSerialId, String key) {
+        return get(prevSerialId, key) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Grow the table so that the given count of items can be put without resizing.
+     *
+     * @param count expected count of items
+     */
+    public void ensureCapacity(int count) {
+        int newCapacity = capacity;
+        while ((int) (newCapacity * LOAD_FACTOR) <= count) {
+            newCapacity <<= 1;
+        }
+        if (newCapacity != capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    private void resize() {
+        resize(capacity << 1);
+    }
+
+    private void resize(int capacity) {
+        int[][] oldPrevSerialIds = prevSerialIds;
+        String[][] oldKeys = keys;
+        CommandItem[][] oldItems = items;
+
+        allocate(capacity);
+        size = 0;
+
+        for (int chunk = 0; chunk < oldKeys.length; chunk++) {
+            for (int j = 0; j < oldKeys[chunk].length; j++) {
+                if (oldKeys[chunk][j] != null) {
+                    put(oldPrevSerialIds[chunk][j], oldKeys[chunk][j], oldItems[chunk][j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mix the previous serial id with the key's hash code, and spread the higher bits to the lower bits.
+     *
+     * @param prevSerialId previous item's serial id
+     * @param keyHash      hash code of the key
+     * @return hash
+     */
+    private static int hash(int prevSerialId, int keyHash) {
+        // saved table layouts depend on it, changing it needs a new format version of CommandRegistryFile
+        int h = prevSerialId * 0x9E3779B9 + keyHash;
+        return h ^ (h >>> 16);
+    }
+}
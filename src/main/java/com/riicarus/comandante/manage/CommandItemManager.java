@@ -1,14 +1,29 @@
 package com.riicarus.comandante.manage;
 
+import com.riicarus.comandante.exception.CommandBuildException;
 import com.riicarus.comandante.executor.CommandExecutor;
+import com.riicarus.comandante.metrics.ExecutorMetrics;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * [FEATURE INFO]<br/>
- * Manager for lexical items of command, usually works in the command building process.
+ * Manager for lexical items of command, usually works in the command building process.<br/>
+ * <br/>
+ * Registered items and executors are published as immutable CommandRegistrySnapshots through a volatile reference,
+ * so analyzing reads the current snapshot without any lock, and a command keeps the snapshot it starts with.<br/>
+ * Writers are serialized by a lock, the first write after a publish copies the current snapshot, later writes go to the copy.
+ * The copy shares chunks with the snapshot and only copies the chunks it writes to,
+ * so registering commands one by one does not copy the whole registry for each command.<br/>
+ * When an executor is bound, the writer publishes the copy as a new version before it returns,
+ * writes in batch() are published once when the batch ends. Reading the snapshot never publishes or waits.<br/>
+ * The bind listener is notified of the bound executors by the writer after they are published, outside the lock.
  *
  * @author Riicarus
  * @create 2023-4-11 11:45
@@ -20,54 +35,70 @@ public class CommandItemManager {
      */
     private final AtomicInteger itemCount = new AtomicInteger(0);
     /**
-     * Use a map to maintain each lexical item. The key is the item's name, the value is the item set with the same name.
+     * The published snapshot, read by analyzing without lock.
      */
-    private final HashMap<String, HashSet<CommandItem>> lexicalItems = new HashMap<>();
+    private volatile CommandRegistrySnapshot snapshot = CommandRegistrySnapshot.EMPTY;
     /**
-     * Use a map to bind opt items with their alias. The key is the item's alias, the value is the item set with the same alias.
+     * Serializes writers.
      */
-    private final HashMap<String, HashSet<CommandItem>> optItemsForAlias = new HashMap<>();
+    private final Object writeLock = new Object();
     /**
-     * Use a map to maintain the binding of CommandItem and its executor.
+     * Unpublished copy of lexical items index, null if there's no unpublished write, guarded by writeLock.
      */
-    private final HashMap<CommandItem, CommandExecutor> executors = new HashMap<>();
+    private CommandItemIndex lexicalItems;
+    /**
+     * Unpublished copy of opt items' alias index, guarded by writeLock.
+     */
+    private CommandItemIndex optItemsForAlias;
+    /**
+     * Unpublished copy of the binding of CommandItem and its executor indexed by the item's serial id, guarded by writeLock.
+     */
+    private CommandExecutorTable executors;
+    /**
+     * Depth of nested batches, guarded by writeLock.
+     */
+    private int batchDepth = 0;
+    /**
+     * Notified when an executor is bound and published, null means no listener.
+     */
+    private volatile Consumer<CommandExecutor> bindListener;
+    /**
+     * Unpublished executors bound when there's a listener, null if there's none, guarded by writeLock.
+     */
+    private List<CommandExecutor> boundExecutors;
+    /**
+     * Published executors bound when there's a listener, which are not notified yet, null if there's none, guarded by writeLock.
+     */
+    private List<CommandExecutor> publishedExecutors;
 
     /**
-     * Add a lexical item to lexicalItems set.
+     * Add a lexical item to lexicalItems index, if there's already an item with the same name following the prev item, the item is not added.
      *
      * @param item     current item
      * @param prevItem previous item
+     * @return the indexed item, which is the given item or the existing one
      */
-    public void addLexicalItem(CommandItem item, CommandItem prevItem) {
-        if (!containsItem(item.getName(), prevItem)) {
-            doAddLexicalItem(item);
-        }
-    }
+    public CommandItem addLexicalItem(CommandItem item, CommandItem prevItem) {
+        synchronized (writeLock) {
+            prepareWrite();
 
-    private void doAddLexicalItem(CommandItem item) {
-        // if the set with the name is initialized
-        if (this.lexicalItems.containsKey(item.getName())) {
-            this.lexicalItems.get(item.getName()).add(item);
-        } else {
-            HashSet<CommandItem> items = new HashSet<>();
-            items.add(item);
-            this.lexicalItems.put(item.getName(), items);
-        }
+            CommandItem existing = lexicalItems.get(prevItem.getSerialId(), item.getName());
+            if (existing != null) {
+                return existing;
+            }
 
-        // if the command item is an opt item, update optItemsForAlias
-        if (CommandItemType.RESERVED_WORD.getValue() == item.getType() && item.getSubName() != null && !item.getSubName().equals("")) {
-            if (this.optItemsForAlias.containsKey(item.getSubName())) {
-                this.optItemsForAlias.get(item.getSubName()).add(item);
-            } else {
-                HashSet<CommandItem> items = new HashSet<>();
-                items.add(item);
-                this.optItemsForAlias.put(item.getSubName(), items);
+            lexicalItems.put(item.getPrevSerialId(), item.getName(), item);
+            // if the command item is an opt item, update optItemsForAlias
+            if (CommandItemType.RESERVED_WORD.getValue() == item.getType() && item.getSubName() != null && !item.getSubName().equals("")) {
+                optItemsForAlias.put(item.getPrevSerialId(), item.getSubName(), item);
             }
+
+            return item;
         }
     }
 
     /**
-     * Judge if a item is in lexicalItems set.<br/>
+     * Judge if a item is registered, including the unpublished items, used in the command building process.<br/>
      * Note that this function only compares the current item's name and its prev item's serialId, but not compares the item's type,
      * So we must asume that there's no more than one item with the same name following the prev item.<br/>
      * So, even for different type of items following the same prev item, they can not have the same name.
@@ -76,119 +107,374 @@ public class CommandItemManager {
      * @param prevItem previous CommandItem
      * @return is in
      */
-    @SuppressWarnings("all")
     public boolean containsItem(String name, CommandItem prevItem) {
-        if (!this.lexicalItems.containsKey(name)) {
-            return false;
-        }
-
-        HashSet<CommandItem> items = this.lexicalItems.get(name);
-        for (CommandItem item : items) {
-            if (item.getPrevSerialId() == prevItem.getSerialId()) {
-                return true;
-            }
-        }
-
-        return false;
+        return getItem(name, prevItem) != null;
     }
 
     /**
-     * Judge if a item is in optItemsForAlias set.
+     * Judge if a item's alias is registered, including the unpublished items.
      *
      * @param alias    item's alias
      * @param prevItem previous CommandItem
      * @return is in
      */
     public boolean containsItemAlias(String alias, CommandItem prevItem) {
-        if (!this.optItemsForAlias.containsKey(alias)) {
-            return false;
+        return getItemAlias(alias, prevItem) != null;
+    }
+
+    /**
+     * Get a registered item, including the unpublished items, used in the command building process.
+     *
+     * @param name     item's name
+     * @param prevItem previous CommandItem
+     * @return CommandItem
+     */
+    public CommandItem getItem(String name, CommandItem prevItem) {
+        synchronized (writeLock) {
+            return lexicalItems == null ? snapshot.getItem(name, prevItem) : lexicalItems.get(prevItem.getSerialId(), name);
         }
+    }
 
-        HashSet<CommandItem> items = this.optItemsForAlias.get(alias);
-        for (CommandItem item : items) {
-            if (item.getPrevSerialId() == prevItem.getSerialId()) {
-                return true;
-            }
+    /**
+     * Get a registered item by its alias, including the unpublished items.
+     *
+     * @param alias    item's alias
+     * @param prevItem previous CommandItem
+     * @return CommandItem
+     */
+    public CommandItem getItemAlias(String alias, CommandItem prevItem) {
+        synchronized (writeLock) {
+            return optItemsForAlias == null ? snapshot.getItemAlias(alias, prevItem) : optItemsForAlias.get(prevItem.getSerialId(), alias);
         }
+    }
 
-        return false;
+    /**
+     * Get a published item, the name is a region of the source string.
+     *
+     * @param source   source string containing the name
+     * @param offset   offset of the name in the source
+     * @param length   length of the name
+     * @param prevItem previous CommandItem
+     * @return CommandItem
+     */
+    public CommandItem getItem(String source, int offset, int length, CommandItem prevItem) {
+        return getSnapshot().getItem(source, offset, length, prevItem);
     }
 
     /**
-     * Get a item in lexicalItems set.
+     * Get a published opt item by its alias, the alias is a region of the source string.
      *
-     * @param name     item's name
+     * @param source   source string containing the alias
+     * @param offset   offset of the alias in the source
+     * @param length   length of the alias
      * @param prevItem previous CommandItem
      * @return CommandItem
      */
-    public CommandItem getItem(String name, CommandItem prevItem) {
-        if (!this.lexicalItems.containsKey(name)) {
-            return null;
-        }
+    public CommandItem getItemAlias(String source, int offset, int length, CommandItem prevItem) {
+        return getSnapshot().getItemAlias(source, offset, length, prevItem);
+    }
+
+    /**
+     * Bind CommandExecutor to a CommandItem, the registered items are published before it returns if it's not in a batch.
+     *
+     * @param item     current item
+     * @param executor the current item's executor
+     */
+    public void bindExecutor(CommandItem item, CommandExecutor executor) {
+        synchronized (writeLock) {
+            prepareWrite();
 
-        HashSet<CommandItem> items = this.lexicalItems.get(name);
+            if (executors.bind(item.getSerialId(), executor)) {
+                addBoundExecutor(executor);
+            }
 
-        for (CommandItem item : items) {
-            if (item.getPrevSerialId() == prevItem.getSerialId()) {
-                return item;
+            if (batchDepth == 0) {
+                doPublish();
+            }
+        }
+        notifyBindListener();
+    }
+
+    /**
+     * Run registrations as a batch, all items and executors registered in it are published as one version when it ends.<br/>
+     * Other writers wait until the batch ends, analyzing is not blocked and still uses the previous version.
+     *
+     * @param registrations registrations, usually building commands by CommandBuilder
+     */
+    public void batch(Runnable registrations) {
+        synchronized (writeLock) {
+            batchDepth++;
+            try {
+                registrations.run();
+            } finally {
+                batchDepth--;
+                if (batchDepth == 0) {
+                    doPublish();
+                }
             }
         }
+        notifyBindListener();
+    }
+
+    /**
+     * Publish unpublished items as a new version, items registered without executors are published by it.
+     */
+    public void publish() {
+        synchronized (writeLock) {
+            doPublish();
+        }
+        notifyBindListener();
+    }
+
+    /**
+     * Publish unpublished items, must be called with writeLock, the bound executors are notified by notifyBindListener() later.
+     */
+    private void doPublish() {
+        if (lexicalItems == null) {
+            return;
+        }
 
-        return null;
+        snapshot = new CommandRegistrySnapshot(snapshot.getVersion() + 1, lexicalItems, optItemsForAlias, executors);
+        lexicalItems = null;
+        optItemsForAlias = null;
+        executors = null;
+
+        if (boundExecutors != null) {
+            if (publishedExecutors == null) {
+                publishedExecutors = boundExecutors;
+            } else {
+                publishedExecutors.addAll(boundExecutors);
+            }
+            boundExecutors = null;
+        }
     }
 
     /**
-     * Get a item in optItemsForAlias set.
+     * Record an executor bound when there's a listener, must be called with writeLock.
      *
-     * @param alias    item's alias
-     * @param prevItem previous CommandItem
-     * @return CommandItem
+     * @param executor bound executor
      */
-    public CommandItem getItemAlias(String alias, CommandItem prevItem) {
-        if (!this.optItemsForAlias.containsKey(alias)) {
-            return null;
+    private void addBoundExecutor(CommandExecutor executor) {
+        if (bindListener == null) {
+            return;
+        }
+        if (boundExecutors == null) {
+            boundExecutors = new ArrayList<>();
         }
+        boundExecutors.add(executor);
+    }
 
-        HashSet<CommandItem> items = this.optItemsForAlias.get(alias);
+    /**
+     * Notify the listener of the published executors, it does nothing if the current thread holds writeLock,
+     * so the listener never runs in the lock, the outermost writer notifies it.
+     */
+    private void notifyBindListener() {
+        if (Thread.holdsLock(writeLock)) {
+            return;
+        }
+
+        List<CommandExecutor> published;
+        synchronized (writeLock) {
+            published = publishedExecutors;
+            publishedExecutors = null;
+        }
 
-        for (CommandItem item : items) {
-            if (item.getPrevSerialId() == prevItem.getSerialId()) {
-                return item;
+        Consumer<CommandExecutor> listener = bindListener;
+        if (published == null || listener == null) {
+            return;
+        }
+        for (CommandExecutor executor : published) {
+            listener.accept(executor);
+        }
+    }
+
+    /**
+     * Merge items and executors loaded from a registry file, they are published before it returns if it's not in a batch.<br/>
+     * If every registered item is in the loaded indexes with the same serial id, such as the inner commands registered at startup,
+     * the loaded indexes are used directly and the loaded serial ids are kept.
+     * Otherwise, loaded serial ids are remapped: an item following the same prev item with the same name as a registered one is merged to it,
+     * others get new serial ids. Executors are not bound to items which already have executors.
+     *
+     * @param items        loaded items sorted by serial id, a prev item is always before its next items
+     * @param lexicalIndex loaded index of the items
+     * @param aliasIndex   loaded alias index of the items
+     * @param executors    loaded executors indexed by the loaded serial ids of their items
+     * @return count of bound executors
+     * @throws CommandBuildException runtime exception, if the serial id reaches the limit of CommandItem
+     */
+    int merge(CommandItem[] items, CommandItemIndex lexicalIndex, CommandItemIndex aliasIndex, CommandExecutor[] executors) throws CommandBuildException {
+        int bound = 0;
+        synchronized (writeLock) {
+            prepareWrite();
+
+            int maxSerialId = items.length == 0 ? 0 : items[items.length - 1].getSerialId();
+            int[] serialIds = new int[maxSerialId + 1];
+            int next;
+            // every generated serial id is registered and kept by the loaded items, the loaded ones can be kept
+            if (items.length > 0 && isCompatible(lexicalIndex, aliasIndex) && itemCount.compareAndSet(lexicalItems.size(), maxSerialId)) {
+                for (CommandItem item : items) {
+                    serialIds[item.getSerialId()] = item.getSerialId();
+                }
+                lexicalItems = lexicalIndex;
+                optItemsForAlias = aliasIndex;
+                next = maxSerialId;
+            } else {
+                // reserve serial ids for all loaded items, ids of merged items are not used
+                next = itemCount.getAndAdd(items.length);
+                if (next < 0 || (long) next + items.length > CommandItem.MAX_SERIAL_ID) {
+                    itemCount.addAndGet(-items.length);
+                    throw new CommandBuildException("Command item count reaches the limit: " + CommandItem.MAX_SERIAL_ID + ".");
+                }
+
+                lexicalItems.ensureCapacity(lexicalItems.size() + items.length);
+                for (CommandItem loaded : items) {
+                    int prevSerialId = serialIds[loaded.getPrevSerialId()];
+                    CommandItem existing = lexicalItems.get(prevSerialId, loaded.getName());
+                    if (existing != null) {
+                        serialIds[loaded.getSerialId()] = existing.getSerialId();
+                        continue;
+                    }
+
+                    CommandItem item = new CommandItem(CommandItemType.of(loaded.getType()), prevSerialId, ++next, loaded.getName(), loaded.getSubName(),
+                            loaded.getArgumentType());
+                    serialIds[loaded.getSerialId()] = next;
+                    lexicalItems.put(prevSerialId, item.getName(), item);
+                    if (CommandItemType.RESERVED_WORD.getValue() == item.getType() && item.getSubName() != null && !item.getSubName().equals("")) {
+                        optItemsForAlias.put(prevSerialId, item.getSubName(), item);
+                    }
+                }
+            }
+
+            for (int i = 0; i < executors.length && i < serialIds.length; i++) {
+                CommandExecutor executor = executors[i];
+                int serialId = serialIds[i];
+                if (executor != null && serialId != 0 && this.executors.bind(serialId, executor)) {
+                    bound++;
+                    addBoundExecutor(executor);
+                }
+            }
+
+            if (batchDepth == 0) {
+                doPublish();
             }
         }
+        notifyBindListener();
 
-        return null;
+        return bound;
     }
 
     /**
-     * Bind CommandExecutor to a CommandItem.
+     * Judge if every registered item is in the loaded indexes with the same markword, name, alias and argument type,
+     * so the loaded indexes can replace the registered ones, must be called with writeLock.
      *
-     * @param item     current item
-     * @param executor the current item's executor
+     * @param lexicalIndex loaded index of the items
+     * @param aliasIndex   loaded alias index of the items
+     * @return is compatible
      */
-    public void bindExecutor(CommandItem item, CommandExecutor executor) {
-        if (!executors.containsKey(item)) {
-            executors.put(item, executor);
+    private boolean isCompatible(CommandItemIndex lexicalIndex, CommandItemIndex aliasIndex) {
+        boolean[] compatible = {true};
+        lexicalItems.forEach(item -> {
+            if (!compatible[0]) {
+                return;
+            }
+
+            CommandItem loaded = lexicalIndex.get(item.getPrevSerialId(), item.getName());
+            compatible[0] = loaded != null && loaded.getMarkword() == item.getMarkword()
+                    && Objects.equals(loaded.getSubName(), item.getSubName()) && loaded.getArgumentType() == item.getArgumentType();
+            if (compatible[0] && item.getSubName() != null && optItemsForAlias.get(item.getPrevSerialId(), item.getSubName()) == item) {
+                compatible[0] = aliasIndex.get(item.getPrevSerialId(), item.getSubName()) == loaded;
+            }
+        });
+
+        return compatible[0];
+    }
+
+    /**
+     * Copy the published snapshot for writing if there's no unpublished write, must be called with writeLock.
+     */
+    private void prepareWrite() {
+        if (lexicalItems == null) {
+            CommandRegistrySnapshot current = snapshot;
+            lexicalItems = current.getLexicalItems().copy();
+            optItemsForAlias = current.getOptItemsForAlias().copy();
+            executors = current.getExecutorTable().copy();
         }
     }
 
     /**
-     * Find bound CommandExecutor of a command item.
+     * Get the published snapshot of registered items and executors.
+     *
+     * @return snapshot
+     */
+    public CommandRegistrySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Set the listener notified after an executor is bound and published, used to monitor executors registered later.
+     *
+     * @param bindListener listener, null means no listener
+     */
+    public void setBindListener(Consumer<CommandExecutor> bindListener) {
+        this.bindListener = bindListener;
+    }
+
+    /**
+     * Get all published executors.
+     *
+     * @return executors
+     */
+    public List<CommandExecutor> getExecutors() {
+        return getSnapshot().getExecutors();
+    }
+
+    /**
+     * Find bound CommandExecutor of a command item in the published snapshot.
      *
      * @param item Current CommandItem
      * @return CommandExecutor
      */
     public CommandExecutor findExecutor(CommandItem item) {
-        return executors.get(item);
+        return getSnapshot().findExecutor(item);
+    }
+
+    /**
+     * Get the version of the published snapshot, it changes when registered items are published.
+     *
+     * @return version
+     */
+    public long getVersion() {
+        return getSnapshot().getVersion();
     }
 
     /**
      * Generate serial id for next item.
      *
      * @return serial id
+     * @throws CommandBuildException runtime exception, if the serial id reaches the limit of CommandItem
      */
-    public int generateSerialId() {
-        return itemCount.incrementAndGet();
+    public int generateSerialId() throws CommandBuildException {
+        int serialId = itemCount.incrementAndGet();
+        if (serialId > CommandItem.MAX_SERIAL_ID || serialId <= 0) {
+            itemCount.decrementAndGet();
+            throw new CommandBuildException("Command item count reaches the limit: " + CommandItem.MAX_SERIAL_ID + ".");
+        }
+
+        return serialId;
+    }
+
+    /**
+     * Get metrics of all published executors.
+     *
+     * @return metrics of executors, keyed by their command strings
+     */
+    public Map<String, ExecutorMetrics> getExecutorMetrics() {
+        Map<String, ExecutorMetrics> metrics = new LinkedHashMap<>();
+        for (CommandExecutor executor : getSnapshot().getExecutors()) {
+            metrics.put(executor.getCommandString(), executor.getMetrics());
+        }
+
+        return metrics;
     }
 
     /**
@@ -198,7 +484,7 @@ public class CommandItemManager {
      */
     public String listAllCommandUsage() {
         StringBuilder usageBuilder = new StringBuilder();
-        for (CommandExecutor executor : executors.values()) {
+        for (CommandExecutor executor : getSnapshot().getExecutors()) {
             usageBuilder.append(executor.getCommandString())
                     .append("\t\t")
                     .append(executor.getUsage())
@@ -32,4 +32,20 @@ public enum CommandItemType {
     public int getValue() {
         return value;
     }
+
+    /**
+     * Get the type by its value.
+     *
+     * @param value value of the type
+     * @return type, null if no type has the value
+     */
+    public static CommandItemType of(int value) {
+        for (CommandItemType type : values()) {
+            if (type.value == value) {
+                return type;
+            }
+        }
+
+        return null;
+    }
 }
@@ -0,0 +1,77 @@
+package com.riicarus.comandante.manage;
+
+import com.riicarus.comandante.exception.CommandSyntaxException;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Limits of a command input, a command exceeding them is rejected before it's analyzed or cached.<br/>
+ * The input length is checked before lexical analyzing, the token count is checked while tokens are produced,
+ * so an oversized command is rejected without scanning the whole input.<br/>
+ * Not positive value means no limit.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 17:42
+ * @since 3.1
+ */
+public class CommandLimits {
+
+    public static final int DEFAULT_MAX_INPUT_LENGTH = 1 << 16;
+    public static final int DEFAULT_MAX_TOKEN_COUNT = 1 << 15;
+    public static final int UNLIMITED = 0;
+
+    public static final CommandLimits DEFAULT = new CommandLimits(DEFAULT_MAX_INPUT_LENGTH, DEFAULT_MAX_TOKEN_COUNT);
+    public static final CommandLimits NONE = new CommandLimits(UNLIMITED, UNLIMITED);
+
+    /**
+     * Max count of chars of a command input.
+     */
+    private final int maxInputLength;
+    /**
+     * Max count of tokens of a command input.
+     */
+    private final int maxTokenCount;
+
+    /**
+     * Create command limits.
+     *
+     * @param maxInputLength max count of chars of a command input, not positive value means no limit
+     * @param maxTokenCount  max count of tokens of a command input, not positive value means no limit
+     */
+    public CommandLimits(int maxInputLength, int maxTokenCount) {
+        this.maxInputLength = maxInputLength;
+        this.maxTokenCount = maxTokenCount;
+    }
+
+    /**
+     * Check the length of the command input.
+     *
+     * @param command command input
+     * @throws CommandSyntaxException runtime exception
+     */
+    public void checkInput(String command) throws CommandSyntaxException {
+        if (maxInputLength > 0 && command.length() > maxInputLength) {
+            throw new CommandSyntaxException("Command input is too long, length: " + command.length() + ", max: " + maxInputLength + ".");
+        }
+    }
+
+    /**
+     * Check the count of tokens before adding a token.
+     *
+     * @param tokenCount count of produced tokens
+     * @param idx        index of the char where the next token starts
+     * @throws CommandSyntaxException runtime exception
+     */
+    public void checkTokenCount(int tokenCount, int idx) throws CommandSyntaxException {
+        if (maxTokenCount > 0 && tokenCount >= maxTokenCount) {
+            throw new CommandSyntaxException("Command input has too many tokens, max: " + maxTokenCount + ", index: " + idx + ".");
+        }
+    }
+
+    public int getMaxInputLength() {
+        return maxInputLength;
+    }
+
+    public int getMaxTokenCount() {
+        return maxTokenCount;
+    }
+}
@@ -0,0 +1,129 @@
+package com.riicarus.comandante.manage;
+
+import com.riicarus.comandante.executor.GeneratedExecutor;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * [FEATURE INFO]<br/>
+ * A size-bounded cache of analyzed commands, the key is the command input string,
+ * and the value is the GeneratedExecutor analyzed from it, which is immutable and can be executed again and again.<br/>
+ * <br/>
+ * Every plan is stamped with the CommandItemManager's version when it's analyzed,
+ * a plan built with an older version will never be returned, so registering new items invalidates the cache.<br/>
+ * The cache is safe for concurrent dispatching threads.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 14:48
+ * @since 3.1
+ */
+public class CommandPlanCache {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Max count of cached plans, no plan will be cached if it's not positive.
+     */
+    private final int capacity;
+    /**
+     * Cached plans, the key is the command input string.
+     */
+    private final ConcurrentHashMap<String, Plan> plans;
+    /**
+     * The latest CommandItemManager's version seen by the cache, used to drop outdated plans.
+     */
+    private volatile long itemVersion = -1;
+
+    public CommandPlanCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CommandPlanCache(int capacity) {
+        this.capacity = capacity;
+        this.plans = new ConcurrentHashMap<>(Math.max(16, capacity));
+    }
+
+    /**
+     * Get the cached plan of the command.
+     *
+     * @param commandStr  command input string
+     * @param itemVersion the version of registered items which the command is analyzed against
+     * @return the cached generated executor, null if it's not cached or outdated
+     */
+    public GeneratedExecutor get(String commandStr, long itemVersion) {
+        if (itemVersion != this.itemVersion) {
+            // A caller holding an older snapshot does not roll the cache back.
+            if (itemVersion > this.itemVersion) {
+                invalidate(itemVersion);
+            }
+            return null;
+        }
+
+        Plan plan = plans.get(commandStr);
+        if (plan == null || plan.itemVersion != itemVersion) {
+            return null;
+        }
+
+        return plan.executor;
+    }
+
+    /**
+     * Cache the plan of the command, if the cache is full, one cached plan will be evicted.
+     *
+     * @param commandStr  command input string
+     * @param executor    the generated executor analyzed from the command
+     * @param itemVersion the version of CommandItemManager when the command is analyzed
+     */
+    public void put(String commandStr, GeneratedExecutor executor, long itemVersion) {
+        if (capacity <= 0 || itemVersion != this.itemVersion) {
+            return;
+        }
+
+        if (plans.size() >= capacity) {
+            Iterator<String> iterator = plans.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+
+        plans.put(commandStr, new Plan(executor, itemVersion));
+    }
+
+    /**
+     * Drop all cached plans.
+     */
+    public void invalidate() {
+        plans.clear();
+    }
+
+    private synchronized void invalidate(long itemVersion) {
+        if (this.itemVersion < itemVersion) {
+            plans.clear();
+            this.itemVersion = itemVersion;
+        }
+    }
+
+    public int size() {
+        return plans.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * A cached plan stamped with the CommandItemManager's version.
+     */
+    private static class Plan {
+
+        private final GeneratedExecutor executor;
+        private final long itemVersion;
+
+        Plan(GeneratedExecutor executor, long itemVersion) {
+            this.executor = executor;
+            this.itemVersion = itemVersion;
+        }
+    }
+}
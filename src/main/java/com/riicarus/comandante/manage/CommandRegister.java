@@ -1,5 +1,11 @@
 package com.riicarus.comandante.manage;
 
+import com.riicarus.comandante.exception.CommandLoadException;
+import com.riicarus.comandante.executor.Executable;
+
+import java.io.IOException;
+import java.util.function.Function;
+
 /**
  * [FEATURE INFO]<br/>
  * Command Register provides the CommandBuilder and maintains the command item manager.
@@ -24,6 +30,39 @@ public class CommandRegister {
         return new CommandBuilder(commandItemManager);
     }
 
+    /**
+     * Register commands as a batch, they are published as one version of registered items when the batch ends.<br/>
+     * Registering many commands in a batch also avoids copying the registered items for every command.
+     *
+     * @param registrations registrations, usually building commands by builder()
+     */
+    public void batch(Runnable registrations) {
+        commandItemManager.batch(registrations);
+    }
+
+    /**
+     * Save registered commands to a binary registry file, see CommandRegistryFile.
+     *
+     * @param path file path
+     * @throws IOException if writing fails
+     */
+    public void save(String path) throws IOException {
+        CommandRegistryFile.save(commandItemManager, path);
+    }
+
+    /**
+     * Load commands from a binary registry file as one version, see CommandRegistryFile.
+     *
+     * @param path     file path
+     * @param resolver resolves the Executable by the executor's command string, like "app echo &lt;msg&gt; -v", returns null if not found
+     * @return count of bound executors
+     * @throws IOException          if reading fails
+     * @throws CommandLoadException runtime exception, if the file is not a valid registry file
+     */
+    public int load(String path, Function<String, ? extends Executable> resolver) throws IOException, CommandLoadException {
+        return CommandRegistryFile.load(commandItemManager, path, resolver);
+    }
+
     public CommandItemManager getCommandItemManager() {
         return commandItemManager;
     }
@@ -0,0 +1,397 @@
+package com.riicarus.comandante.manage;
+
+import com.riicarus.comandante.exception.CommandLoadException;
+import com.riicarus.comandante.executor.CommandArgumentType;
+import com.riicarus.comandante.executor.CommandExecutor;
+import com.riicarus.comandante.executor.Executable;
+import com.riicarus.comandante.main.CommandLogger;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Binary file of registered command items and executors, used to skip building commands at startup.<br/>
+ * save() writes a published CommandRegistrySnapshot, load() maps the file to memory, reads it in one pass
+ * and merges all items to a CommandItemManager as one version.<br/>
+ * Executables can not be saved, so every executor is saved with its command string as a stable key,
+ * and re-bound to the Executable resolved by the key when loading.
+ * Argument types are saved by their names, custom and enum types must be defined before loading.<br/>
+ * <br/>
+ * File format, all numbers are big-endian:<br/>
+ * 1. header: magic(int), format version(int), string count(int), item count(int), executor count(int);<br/>
+ * 2. string table: lengths of all strings(int[]), then chars of all strings(char[]), names, aliases, command strings and usages are stored once;<br/>
+ * 3. items sorted by serial id, in columns: markwords(long[]), name indexes(int[]), sub name indexes(int[], -1 means null),
+ * argument type name indexes(int[], -1 means null);<br/>
+ * 4. layout of the lexical index: capacity(int), slot of every item(int[]);<br/>
+ * 5. layout of the alias index: capacity(int), entry count(int), positions of the items(int[]), slots(int[]);<br/>
+ * 6. executors in columns: serial ids of the items(int[]), command string indexes(int[]), usage indexes(int[]).<br/>
+ * Every section is read by one bulk copy from the mapped file.<br/>
+ * <br/>
+ * Loading to a manager without any item restores the indexes from the saved layouts without hashing,
+ * otherwise the items are merged to the registered ones.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 22:50
+ * @since 3.1
+ */
+public class CommandRegistryFile {
+
+    /**
+     * "CMDR".
+     */
+    private static final int MAGIC = 0x434D4452;
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    private CommandRegistryFile() {
+    }
+
+    /**
+     * Save the published items and executors of the manager to a file, the file is replaced if exists.
+     *
+     * @param itemManager command item manager
+     * @param path        file path
+     * @throws IOException if writing fails
+     */
+    public static void save(CommandItemManager itemManager, String path) throws IOException {
+        save(itemManager.getSnapshot(), Paths.get(path));
+    }
+
+    /**
+     * Save a snapshot of registered items and executors to a file, the file is replaced if exists.
+     *
+     * @param snapshot snapshot of registered items and executors
+     * @param path     file path
+     * @throws IOException if writing fails
+     */
+    public static void save(CommandRegistrySnapshot snapshot, Path path) throws IOException {
+        List<CommandItem> items = new ArrayList<>();
+        snapshot.getLexicalItems().forEach(items::add);
+        items.sort(Comparator.comparingInt(CommandItem::getSerialId));
+        int itemCount = items.size();
+
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        CommandItemIndex lexicalIndex = snapshot.getLexicalItems();
+        CommandItemIndex aliasIndex = snapshot.getOptItemsForAlias();
+        long[] markwords = new long[itemCount];
+        int[] names = new int[itemCount];
+        int[] subNames = new int[itemCount];
+        int[] argumentTypes = new int[itemCount];
+        int[] slots = new int[itemCount];
+        int[] aliasPositions = new int[itemCount];
+        int[] aliasSlots = new int[itemCount];
+        int aliasCount = 0;
+        for (int i = 0; i < itemCount; i++) {
+            CommandItem item = items.get(i);
+            markwords[i] = item.getMarkword();
+            names[i] = indexOf(item.getName(), stringIndexes, strings);
+            subNames[i] = indexOf(item.getSubName(), stringIndexes, strings);
+            argumentTypes[i] = item.getArgumentType() == null ? -1 : indexOf(item.getArgumentType().getName(), stringIndexes, strings);
+            slots[i] = lexicalIndex.slotOf(item.getPrevSerialId(), item.getName());
+            if (item.getSubName() != null && aliasIndex.get(item.getPrevSerialId(), item.getSubName()) == item) {
+                aliasPositions[aliasCount] = i;
+                aliasSlots[aliasCount++] = aliasIndex.slotOf(item.getPrevSerialId(), item.getSubName());
+            }
+        }
+
+        List<CommandExecutor> executors = snapshot.getExecutors();
+        int[] executorSerialIds = new int[executors.size()];
+        int[] commandStrings = new int[executors.size()];
+        int[] usages = new int[executors.size()];
+        int executorCount = 0;
+        CommandExecutorTable executorTable = snapshot.getExecutorTable();
+        for (int serialId = 0, length = executorTable.length(); serialId < length; serialId++) {
+            CommandExecutor executor = executorTable.get(serialId);
+            if (executor != null) {
+                executorSerialIds[executorCount] = serialId;
+                commandStrings[executorCount] = indexOf(executor.getCommandString(), stringIndexes, strings);
+                usages[executorCount++] = indexOf(executor.getUsage(), stringIndexes, strings);
+            }
+        }
+
+        int[] lengths = new int[strings.size()];
+        long charCount = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = strings.get(i).length();
+            charCount += lengths[i];
+        }
+        long size = HEADER_SIZE + (long) lengths.length * Integer.BYTES + charCount * Character.BYTES
+                + (long) itemCount * (Long.BYTES + 4 * Integer.BYTES) + Integer.BYTES
+                + 2 * Integer.BYTES + (long) aliasCount * 2 * Integer.BYTES
+                + (long) executorCount * 3 * Integer.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Registry is too large to save: " + size + " bytes.");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(lengths.length).putInt(itemCount).putInt(executorCount);
+        putInts(buffer, lengths, lengths.length);
+        CharBuffer chars = buffer.asCharBuffer();
+        for (String string : strings) {
+            chars.put(string);
+        }
+        buffer.position(buffer.position() + chars.position() * Character.BYTES);
+
+        buffer.asLongBuffer().put(markwords);
+        buffer.position(buffer.position() + itemCount * Long.BYTES);
+        putInts(buffer, names, itemCount);
+        putInts(buffer, subNames, itemCount);
+        putInts(buffer, argumentTypes, itemCount);
+
+        buffer.putInt(lexicalIndex.capacity());
+        putInts(buffer, slots, itemCount);
+        buffer.putInt(aliasIndex.capacity()).putInt(aliasCount);
+        putInts(buffer, aliasPositions, aliasCount);
+        putInts(buffer, aliasSlots, aliasCount);
+
+        putInts(buffer, executorSerialIds, executorCount);
+        putInts(buffer, commandStrings, executorCount);
+        putInts(buffer, usages, executorCount);
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values, int count) {
+        buffer.asIntBuffer().put(values, 0, count);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+    }
+
+    /**
+     * Check a count read from the file before allocating for it, the elements must fit in the remaining bytes.
+     *
+     * @param buffer          buffer of the file
+     * @param name            name of the elements
+     * @param count           count of the elements
+     * @param bytesPerElement bytes of an element in the file
+     * @throws CommandLoadException runtime exception, if the count is negative or the elements exceed the file
+     */
+    private static void checkCount(ByteBuffer buffer, String name, long count, int bytesPerElement) throws CommandLoadException {
+        if (count < 0 || count * bytesPerElement > buffer.remaining()) {
+            throw new CommandLoadException("Registry file is broken, invalid " + name + " count: " + count);
+        }
+    }
+
+    private static int[] getInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+
+        return values;
+    }
+
+    private static int indexOf(String string, Map<String, Integer> stringIndexes, List<String> strings) {
+        if (string == null) {
+            return -1;
+        }
+
+        Integer index = stringIndexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            stringIndexes.put(string, index);
+            strings.add(string);
+        }
+
+        return index;
+    }
+
+    /**
+     * Load items and executors from a file and merge them to the manager as one version.<br/>
+     * Items which are already registered are merged to the registered ones, and their executors are kept,
+     * so the resolver is not called for them. An executor whose Executable can not be resolved is not bound, they are logged together.
+     *
+     * @param itemManager command item manager
+     * @param path        file path
+     * @param resolver    resolves the Executable by the executor's command string, returns null if not found
+     * @return count of bound executors
+     * @throws IOException          if reading fails
+     * @throws CommandLoadException runtime exception, if the file is not a valid registry file
+     */
+    public static int load(CommandItemManager itemManager, String path, Function<String, ? extends Executable> resolver) throws IOException, CommandLoadException {
+        return load(itemManager, Paths.get(path), resolver);
+    }
+
+    /**
+     * Load items and executors from a file and merge them to the manager as one version.
+     *
+     * @param itemManager command item manager
+     * @param path        file path
+     * @param resolver    resolves the Executable by the executor's command string, returns null if not found
+     * @return count of bound executors
+     * @throws IOException          if reading fails
+     * @throws CommandLoadException runtime exception, if the file is not a valid registry file
+     * @see #load(CommandItemManager, String, Function)
+     */
+    public static int load(CommandItemManager itemManager, Path path, Function<String, ? extends Executable> resolver) throws IOException, CommandLoadException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            return load(itemManager, buffer, resolver, path.toString());
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new CommandLoadException("Registry file is broken: " + path, e);
+        }
+    }
+
+    private static int load(CommandItemManager itemManager, ByteBuffer buffer, Function<String, ? extends Executable> resolver, String path) throws CommandLoadException {
+        if (buffer.getInt() != MAGIC) {
+            throw new CommandLoadException("Not a registry file: " + path);
+        }
+        int formatVersion = buffer.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new CommandLoadException("Unsupported registry file version: " + formatVersion + ", expected: " + FORMAT_VERSION);
+        }
+        int stringCount = buffer.getInt();
+        int itemCount = buffer.getInt();
+        int executorCount = buffer.getInt();
+
+        // string table
+        checkCount(buffer, "string", stringCount, Integer.BYTES);
+        int[] lengths = getInts(buffer, stringCount);
+        long longCharCount = 0;
+        for (int length : lengths) {
+            if (length < 0) {
+                throw new CommandLoadException("Registry file is broken, invalid string length: " + length);
+            }
+            longCharCount += length;
+        }
+        checkCount(buffer, "char", longCharCount, Character.BYTES);
+        int charCount = (int) longCharCount;
+        char[] chars = new char[charCount];
+        buffer.asCharBuffer().get(chars);
+        buffer.position(buffer.position() + charCount * Character.BYTES);
+        String[] strings = new String[stringCount];
+        for (int i = 0, offset = 0; i < stringCount; offset += lengths[i], i++) {
+            strings[i] = new String(chars, offset, lengths[i]);
+        }
+
+        // items, every item has a markword, 3 string indexes and the slot in the lexical index
+        checkCount(buffer, "item", itemCount, Long.BYTES + 4 * Integer.BYTES);
+        long[] markwords = new long[itemCount];
+        buffer.asLongBuffer().get(markwords);
+        buffer.position(buffer.position() + itemCount * Long.BYTES);
+        int[] nameIndexes = getInts(buffer, itemCount);
+        int[] subNameIndexes = getInts(buffer, itemCount);
+        int[] argumentTypeIndexes = getInts(buffer, itemCount);
+        CommandItem[] items = new CommandItem[itemCount];
+        String[] names = new String[itemCount];
+        int prevLoadedSerialId = 0;
+        for (int i = 0; i < itemCount; i++) {
+            long markword = markwords[i];
+            int serialId = (int) markword & CommandItem.MAX_SERIAL_ID;
+            int prevSerialId = (int) (markword >>> 30) & CommandItem.MAX_SERIAL_ID;
+            CommandItemType type = CommandItemType.of((int) (markword >>> 60));
+            if (type == null || serialId <= prevLoadedSerialId || prevSerialId >= serialId) {
+                throw new CommandLoadException("Registry file is broken, invalid item: " + markword);
+            }
+            prevLoadedSerialId = serialId;
+
+            CommandArgumentType<?> argumentType = null;
+            if (argumentTypeIndexes[i] >= 0) {
+                argumentType = CommandArgumentType.forName(strings[argumentTypeIndexes[i]]);
+                if (argumentType == null) {
+                    throw new CommandLoadException("Argument type is not defined: " + strings[argumentTypeIndexes[i]] + ", define it before loading.");
+                }
+            }
+
+            names[i] = strings[nameIndexes[i]];
+            items[i] = new CommandItem(type, prevSerialId, serialId, names[i], subNameIndexes[i] < 0 ? null : strings[subNameIndexes[i]], argumentType);
+        }
+
+        // index layouts
+        int lexicalCapacity = buffer.getInt();
+        CommandItemIndex lexicalIndex = CommandItemIndex.restore(lexicalCapacity, getInts(buffer, itemCount), items, names);
+        int aliasCapacity = buffer.getInt();
+        int aliasCount = buffer.getInt();
+        checkCount(buffer, "alias", aliasCount, 2 * Integer.BYTES);
+        int[] aliasPositions = getInts(buffer, aliasCount);
+        int[] aliasSlots = getInts(buffer, aliasCount);
+        CommandItem[] aliasItems = new CommandItem[aliasCount];
+        String[] aliases = new String[aliasCount];
+        for (int i = 0; i < aliasCount; i++) {
+            aliasItems[i] = items[aliasPositions[i]];
+            aliases[i] = aliasItems[i].getSubName();
+            if (aliases[i] == null) {
+                throw new CommandLoadException("Registry file is broken, item without alias is in the alias index: " + aliasItems[i].getName());
+            }
+        }
+        CommandItemIndex aliasIndex = CommandItemIndex.restore(aliasCapacity, aliasSlots, aliasItems, aliases);
+
+        // executors
+        checkCount(buffer, "executor", executorCount, 3 * Integer.BYTES);
+        int[] executorSerialIds = getInts(buffer, executorCount);
+        int[] commandStrings = getInts(buffer, executorCount);
+        int[] usages = getInts(buffer, executorCount);
+        CommandExecutor[] executors = new CommandExecutor[prevLoadedSerialId + 1];
+        boolean[] bound = findBound(itemManager.getSnapshot(), items, prevLoadedSerialId);
+        List<String> unresolved = new ArrayList<>();
+        for (int i = 0; i < executorCount; i++) {
+            if (bound[executorSerialIds[i]]) {
+                continue;
+            }
+            String commandString = strings[commandStrings[i]];
+            Executable executable = resolver.apply(commandString);
+            if (executable == null) {
+                unresolved.add(commandString);
+                continue;
+            }
+            CommandExecutor executor = new CommandExecutor(executable, usages[i] < 0 ? null : strings[usages[i]]);
+            executor.setCommandString(commandString);
+            executors[executorSerialIds[i]] = executor;
+        }
+        if (!unresolved.isEmpty()) {
+            List<String> shown = unresolved.subList(0, Math.min(unresolved.size(), 10));
+            CommandLogger.log(unresolved.size() + " executors not resolved when loading registry file " + path + ": " + shown
+                    + (unresolved.size() > shown.size() ? "..." : ""));
+        }
+
+        return itemManager.merge(items, lexicalIndex, aliasIndex, executors);
+    }
+
+    /**
+     * Find the loaded items which are registered and bound to executors in the snapshot, their executors are kept by merging,
+     * so the saved ones need not be resolved. Bound executors are never unbound, so the result is still valid when merging.
+     *
+     * @param snapshot    current snapshot
+     * @param items       loaded items sorted by serial id
+     * @param maxSerialId max loaded serial id
+     * @return if the item is bound, indexed by the loaded serial id
+     */
+    private static boolean[] findBound(CommandRegistrySnapshot snapshot, CommandItem[] items, int maxSerialId) {
+        boolean[] bound = new boolean[maxSerialId + 1];
+        // registered items of the loaded ones, indexed by the loaded serial id
+        CommandItem[] registered = new CommandItem[maxSerialId + 1];
+        registered[0] = CommandItem.ROOT;
+        for (CommandItem item : items) {
+            CommandItem prevItem = registered[item.getPrevSerialId()];
+            CommandItem registeredItem = prevItem == null ? null : snapshot.getItem(item.getName(), prevItem);
+            if (registeredItem != null) {
+                registered[item.getSerialId()] = registeredItem;
+                bound[item.getSerialId()] = snapshot.findExecutor(registeredItem) != null;
+            }
+        }
+
+        return bound;
+    }
+}
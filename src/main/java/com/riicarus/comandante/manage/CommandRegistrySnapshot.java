@@ -0,0 +1,147 @@
+package com.riicarus.comandante.manage;
+
+import com.riicarus.comandante.executor.CommandExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * [FEATURE INFO]<br/>
+ * An immutable version of registered command items and executors, published by CommandItemManager.<br/>
+ * Its indexes are never changed after it's published, so reading it needs no lock.
+ * A command is analyzed against one snapshot from start to end, registrations during analyzing only go to the next version.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 22:20
+ * @since 3.1
+ */
+public class CommandRegistrySnapshot {
+
+    static final CommandRegistrySnapshot EMPTY = new CommandRegistrySnapshot(0, new CommandItemIndex(), new CommandItemIndex(), new CommandExecutorTable());
+
+    private final long version;
+    /**
+     * Index of every lexical item, the key is the item's prev serial id and its name.
+     */
+    private final CommandItemIndex lexicalItems;
+    /**
+     * Index of opt items' alias, the key is the item's prev serial id and its alias.
+     */
+    private final CommandItemIndex optItemsForAlias;
+    /**
+     * The binding of CommandItem and its executor, indexed by the item's serial id.
+     */
+    private final CommandExecutorTable executors;
+    /**
+     * Suggestion index of the items, built when the first suggestion or completion is needed.
+     */
+    private volatile CommandSuggestionIndex suggestionIndex;
+
+    CommandRegistrySnapshot(long version, CommandItemIndex lexicalItems, CommandItemIndex optItemsForAlias, CommandExecutorTable executors) {
+        this.version = version;
+        this.lexicalItems = lexicalItems;
+        this.optItemsForAlias = optItemsForAlias;
+        this.executors = executors;
+    }
+
+    /**
+     * Get the version of the snapshot, a newer snapshot has a greater version.
+     *
+     * @return version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean containsItem(String name, CommandItem prevItem) {
+        return lexicalItems.contains(prevItem.getSerialId(), name);
+    }
+
+    public CommandItem getItem(String name, CommandItem prevItem) {
+        return lexicalItems.get(prevItem.getSerialId(), name);
+    }
+
+    /**
+     * Get a item by its name, the name is a region of the source string.
+     *
+     * @param source   source string containing the name
+     * @param offset   offset of the name in the source
+     * @param length   length of the name
+     * @param prevItem previous CommandItem
+     * @return CommandItem, null if not found
+     */
+    public CommandItem getItem(String source, int offset, int length, CommandItem prevItem) {
+        return lexicalItems.get(prevItem.getSerialId(), source, offset, length);
+    }
+
+    public CommandItem getItemAlias(String alias, CommandItem prevItem) {
+        return optItemsForAlias.get(prevItem.getSerialId(), alias);
+    }
+
+    /**
+     * Get a opt item by its alias, the alias is a region of the source string.
+     *
+     * @param source   source string containing the alias
+     * @param offset   offset of the alias in the source
+     * @param length   length of the alias
+     * @param prevItem previous CommandItem
+     * @return CommandItem, null if not found
+     */
+    public CommandItem getItemAlias(String source, int offset, int length, CommandItem prevItem) {
+        return optItemsForAlias.get(prevItem.getSerialId(), source, offset, length);
+    }
+
+    public CommandExecutor findExecutor(CommandItem item) {
+        return executors.get(item.getSerialId());
+    }
+
+    /**
+     * Get all executors in the order of their items' serial ids.
+     *
+     * @return executors
+     */
+    public List<CommandExecutor> getExecutors() {
+        List<CommandExecutor> list = new ArrayList<>();
+        for (int serialId = 0, length = executors.length(); serialId < length; serialId++) {
+            CommandExecutor executor = executors.get(serialId);
+            if (executor != null) {
+                list.add(executor);
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Get the suggestion index of the items in this snapshot, used by suggestions and completions, it's built by the first call,
+     * so a snapshot which never meets a missed item does not pay for it.
+     *
+     * @return suggestion index
+     */
+    public CommandSuggestionIndex getSuggestionIndex() {
+        CommandSuggestionIndex index = suggestionIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = suggestionIndex;
+                if (index == null) {
+                    index = new CommandSuggestionIndex(this);
+                    suggestionIndex = index;
+                }
+            }
+        }
+
+        return index;
+    }
+
+    CommandItemIndex getLexicalItems() {
+        return lexicalItems;
+    }
+
+    CommandItemIndex getOptItemsForAlias() {
+        return optItemsForAlias;
+    }
+
+    CommandExecutorTable getExecutorTable() {
+        return executors;
+    }
+}
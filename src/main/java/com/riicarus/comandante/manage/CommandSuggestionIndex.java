@@ -0,0 +1,533 @@
+package com.riicarus.comandante.manage;
+
+import com.riicarus.comandante.executor.CommandExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Suggestion index of registered main and opt items, used to suggest the closest items when a command item is not found,
+ * and to complete a partial item by its prefix.<br/>
+ * Items are grouped by their previous item, so only the items which can be written at the missed place are searched,
+ * and the names of every group are sorted.<br/>
+ * A search walks the sorted names like a trie: the rows of edit distance are shared by names with the same prefix,
+ * and all names with a prefix are skipped once the prefix is too far from the missed name,
+ * so only a small part of a large group is measured.<br/>
+ * The distance is the Levenshtein distance which also counts swapping two adjacent characters as one edit.
+ * Candidates are ranked by distance, then by the use count of their executors.<br/>
+ * Items to complete a prefix are in one range of a sorted group, they're ranked by the use count of their executors,
+ * only the top ones are kept, so completing a short prefix in a large group creates no string for the others.<br/>
+ * <br/>
+ * The index is built from a CommandRegistrySnapshot when the snapshot is asked for its first suggestion or completion,
+ * and it's never changed after built, so reading it needs no lock.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 23:58
+ * @since 3.1
+ */
+public class CommandSuggestionIndex {
+    /**
+     * Max count of suggestions for one missed item.
+     */
+    public static final int MAX_SUGGESTIONS = 5;
+    /**
+     * Max edit distance of a suggestion, a shorter name allows a smaller distance, see maxDistance().
+     */
+    private static final int MAX_DISTANCE = 2;
+    /**
+     * Kinds of items to complete, can be combined by "|".
+     */
+    public static final int MAIN_ITEMS = 1;
+    public static final int OPT_ITEMS = 2;
+    public static final int OPT_ALIASES = 4;
+
+    private final CommandRegistrySnapshot registry;
+    /**
+     * Main items sorted by their names.
+     */
+    private final NameTable mainItems;
+    /**
+     * Opt items sorted by their full names.
+     */
+    private final NameTable optItems;
+    /**
+     * Opt items sorted by their alias.
+     */
+    private final NameTable optItemsForAlias;
+
+    CommandSuggestionIndex(CommandRegistrySnapshot registry) {
+        this.registry = registry;
+
+        List<CommandItem> mains = new ArrayList<>();
+        List<CommandItem> opts = new ArrayList<>();
+        List<CommandItem> aliases = new ArrayList<>();
+        registry.getLexicalItems().forEach(item -> {
+            if (CommandItemType.RESERVED_WORD.getValue() != item.getType()) {
+                return;
+            }
+            // only opt items have sub names, an opt registered without alias has an empty one
+            if (item.getSubName() == null) {
+                mains.add(item);
+            } else {
+                opts.add(item);
+            }
+        });
+        registry.getOptItemsForAlias().forEach(item -> {
+            if (item.getSubName() != null && !item.getSubName().isEmpty()) {
+                aliases.add(item);
+            }
+        });
+
+        this.mainItems = new NameTable(mains, CommandItem::getName);
+        this.optItems = new NameTable(opts, CommandItem::getName);
+        this.optItemsForAlias = new NameTable(aliases, CommandItem::getSubName);
+    }
+
+    /**
+     * Suggest main items for a missed main item.
+     *
+     * @param name         name of the missed item
+     * @param prevMainItem previous main item
+     * @return names of the suggested items, the closest first
+     */
+    public List<String> suggestMain(String name, CommandItem prevMainItem) {
+        int maxDistance = maxDistance(name);
+        if (maxDistance == 0) {
+            return Collections.emptyList();
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        mainItems.search(prevMainItem.getSerialId(), name, maxDistance, "", candidates);
+        return rank(candidates);
+    }
+
+    /**
+     * Suggest opt items for a missed opt item written by its full name.
+     *
+     * @param name         full name of the missed opt item
+     * @param prevMainItem previous main item
+     * @return suggested opt items with prefix, like "--name", the closest first
+     */
+    public List<String> suggestOpt(String name, CommandItem prevMainItem) {
+        int maxDistance = maxDistance(name);
+        if (maxDistance == 0) {
+            return Collections.emptyList();
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        optItems.search(prevMainItem.getSerialId(), name, maxDistance, "--", candidates);
+        return rank(candidates);
+    }
+
+    /**
+     * Suggest opt items for a missed opt item written by its alias, both alias and full names are searched,
+     * because a full name is often written with the alias prefix by mistake.
+     *
+     * @param alias        alias of the missed opt item
+     * @param prevMainItem previous main item
+     * @return suggested opt items with prefix, like "-n" or "--name", the closest first
+     */
+    public List<String> suggestOptAlias(String alias, CommandItem prevMainItem) {
+        int maxDistance = maxDistance(alias);
+        if (maxDistance == 0) {
+            return Collections.emptyList();
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        optItemsForAlias.search(prevMainItem.getSerialId(), alias, maxDistance, "-", candidates);
+        optItems.search(prevMainItem.getSerialId(), alias, maxDistance, "--", candidates);
+        return rank(candidates);
+    }
+
+    /**
+     * Complete the items starting with the prefix, ranked by the use count of their executors, then by the completions.
+     *
+     * @param prefix       prefix of the item names or alias
+     * @param prevMainItem previous main item
+     * @param kinds        kinds of items to complete, combined by MAIN_ITEMS, OPT_ITEMS and OPT_ALIASES
+     * @param argumentItem argument item which can be written at the place, completed as a placeholder like "&lt;name&gt;", null if no argument
+     * @param limit        max count of completions
+     * @return completions, opt items are completed with prefix like "--name" and "-n"
+     */
+    public List<String> complete(String prefix, CommandItem prevMainItem, int kinds, CommandItem argumentItem, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // the worst candidate is at the head, so it's replaced by a better one when the queue is full
+        PriorityQueue<Candidate> top = new PriorityQueue<>(Math.min(limit, 16), RANKING.reversed());
+        int prevSerialId = prevMainItem.getSerialId();
+        if ((kinds & MAIN_ITEMS) != 0) {
+            mainItems.complete(prevSerialId, prefix, "", this, top, limit);
+        }
+        if ((kinds & OPT_ITEMS) != 0) {
+            optItems.complete(prevSerialId, prefix, "--", this, top, limit);
+        }
+        if ((kinds & OPT_ALIASES) != 0) {
+            optItemsForAlias.complete(prevSerialId, prefix, "-", this, top, limit);
+        }
+        if (argumentItem != null) {
+            offer(top, limit, "<" + argumentItem.getSubName() + ">", "", argumentItem);
+        }
+
+        Candidate[] candidates = top.toArray(new Candidate[0]);
+        Arrays.sort(candidates, RANKING);
+        List<String> completions = new ArrayList<>(candidates.length);
+        for (Candidate candidate : candidates) {
+            completions.add(candidate.suggestion);
+        }
+
+        return completions;
+    }
+
+    /**
+     * Offer a completion to the top candidates, the string of the completion is only created if it's kept.
+     *
+     * @param top    top candidates, the worst one is at the head
+     * @param limit  max count of candidates
+     * @param prefix prefix of the completion
+     * @param name   name of the item
+     * @param item   item
+     */
+    private void offer(PriorityQueue<Candidate> top, int limit, String prefix, String name, CommandItem item) {
+        int useCount = useCountOf(item);
+        if (top.size() == limit) {
+            Candidate worst = top.peek();
+            if (useCount < worst.useCount || useCount == worst.useCount && compare(prefix, name, worst.suggestion) >= 0) {
+                return;
+            }
+            top.poll();
+        }
+
+        Candidate candidate = new Candidate(prefix + name, item, 0);
+        candidate.useCount = useCount;
+        top.add(candidate);
+    }
+
+    /**
+     * Compare the concatenation of the prefix and the name with a string, without creating the concatenation.
+     *
+     * @param prefix prefix
+     * @param name   name
+     * @param s      string
+     * @return compare result like String.compareTo()
+     */
+    private static int compare(String prefix, String name, String s) {
+        int length = prefix.length() + name.length();
+        int n = Math.min(length, s.length());
+        for (int i = 0; i < n; i++) {
+            char c = i < prefix.length() ? prefix.charAt(i) : name.charAt(i - prefix.length());
+            if (c != s.charAt(i)) {
+                return c - s.charAt(i);
+            }
+        }
+
+        return length - s.length();
+    }
+
+    /**
+     * Get the use count of the executor bound to the item, or bound to its argument item if the item takes an argument,
+     * like "echo" in "echo &lt;message&gt;".
+     *
+     * @param item item
+     * @return use count
+     */
+    private int useCountOf(CommandItem item) {
+        CommandExecutor executor = registry.findExecutor(item);
+        if (executor == null) {
+            CommandItem argumentItem = registry.getItem(FixedLexicalItemValue.ARGUMENT.getValue(), item);
+            executor = argumentItem == null ? null : registry.findExecutor(argumentItem);
+        }
+
+        return executor == null ? 0 : executor.getUseCount();
+    }
+
+    /**
+     * Get the max edit distance allowed for a missed name, about a third of the length,
+     * so a one-character alias gets no suggestion and a short name is only corrected by one edit.
+     *
+     * @param name missed name
+     * @return max distance, 0 means no suggestion
+     */
+    private static int maxDistance(String name) {
+        return Math.min(MAX_DISTANCE, (name.length() + 1) / 3);
+    }
+
+    private List<String> rank(List<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        for (Candidate candidate : candidates) {
+            candidate.useCount = useCountOf(candidate.item);
+        }
+        candidates.sort(RANKING);
+
+        int count = Math.min(MAX_SUGGESTIONS, candidates.size());
+        List<String> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            suggestions.add(candidates.get(i).suggestion);
+        }
+
+        return suggestions;
+    }
+
+    /**
+     * Closer first, then more used first.
+     */
+    private static final Comparator<Candidate> RANKING = (a, b) -> {
+        if (a.distance != b.distance) {
+            return Integer.compare(a.distance, b.distance);
+        }
+        if (a.useCount != b.useCount) {
+            return Integer.compare(b.useCount, a.useCount);
+        }
+        return a.suggestion.compareTo(b.suggestion);
+    };
+
+    private static final class Candidate {
+
+        private final String suggestion;
+        private final CommandItem item;
+        private final int distance;
+        private int useCount;
+
+        private Candidate(String suggestion, CommandItem item, int distance) {
+            this.suggestion = suggestion;
+            this.item = item;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * Items sorted by their previous item's serial id, then by their names.<br/>
+     * Serial ids are dense, so the range of every group is found by the previous item's serial id in an array.
+     */
+    private static final class NameTable {
+        /**
+         * Items of the group behind item p are in [groupStarts[p], groupStarts[p + 1]).
+         */
+        private final int[] groupStarts;
+        private final String[] names;
+        private final CommandItem[] items;
+        /**
+         * Length of the longest name, used to allocate rows of distance computing.
+         */
+        private final int maxLength;
+
+        private NameTable(List<CommandItem> list, Function<CommandItem, String> nameOf) {
+            int maxPrevSerialId = 0;
+            for (CommandItem item : list) {
+                maxPrevSerialId = Math.max(maxPrevSerialId, item.getPrevSerialId());
+            }
+
+            // counting sort by the previous item's serial id, then sort every group by names
+            groupStarts = new int[maxPrevSerialId + 2];
+            for (CommandItem item : list) {
+                groupStarts[item.getPrevSerialId() + 1]++;
+            }
+            for (int p = 1; p < groupStarts.length; p++) {
+                groupStarts[p] += groupStarts[p - 1];
+            }
+            int[] positions = Arrays.copyOf(groupStarts, maxPrevSerialId + 1);
+            items = new CommandItem[list.size()];
+            for (CommandItem item : list) {
+                items[positions[item.getPrevSerialId()]++] = item;
+            }
+            Comparator<CommandItem> byName = Comparator.comparing(nameOf);
+            for (int p = 0; p <= maxPrevSerialId; p++) {
+                if (groupStarts[p + 1] - groupStarts[p] > 1) {
+                    Arrays.sort(items, groupStarts[p], groupStarts[p + 1], byName);
+                }
+            }
+
+            names = new String[items.length];
+            int longest = 0;
+            for (int i = 0; i < items.length; i++) {
+                names[i] = nameOf.apply(items[i]);
+                longest = Math.max(longest, names[i].length());
+            }
+            maxLength = longest;
+        }
+
+        /**
+         * Offer the items starting with the prefix in a group to the top candidates.
+         *
+         * @param prevSerialId serial id of the group's previous item
+         * @param prefix       prefix of names
+         * @param display      prefix of completions
+         * @param index        suggestion index to rank items
+         * @param top          top candidates
+         * @param limit        max count of candidates
+         */
+        private void complete(int prevSerialId, String prefix, String display, CommandSuggestionIndex index, PriorityQueue<Candidate> top, int limit) {
+            if (prevSerialId + 1 >= groupStarts.length) {
+                return;
+            }
+            int to = groupStarts[prevSerialId + 1];
+
+            // names with the prefix are adjacent, and the first one is not less than the prefix
+            int low = groupStarts[prevSerialId];
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (names[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int end = prefixEnd(low, to, prefix, prefix.length());
+            for (int i = low; i < end; i++) {
+                index.offer(top, limit, display, names[i], items[i]);
+            }
+        }
+
+        /**
+         * Find the names within the max distance from the query in a group.<br/>
+         * rows[k] holds the distances from the first k characters of the source name to the prefixes of the query,
+         * the next name reuses the rows of the prefix it shares with the source name.
+         * The distances never get smaller in a longer prefix, so if every distance of a prefix exceeds the max distance,
+         * all names starting with the prefix are skipped.<br/>
+         * The distance between prefixes whose lengths differ by more than the max distance always exceeds it,
+         * so names with such lengths are skipped, and a row only holds the band of query prefixes within the max distance of length,
+         * rows[k][b] is the distance to the first (k - maxDistance + b) characters of the query.
+         *
+         * @param prevSerialId serial id of the group's previous item
+         * @param query        missed name
+         * @param maxDistance  max distance
+         * @param prefix       prefix of suggestions
+         * @param candidates   list to add found candidates
+         */
+        private void search(int prevSerialId, String query, int maxDistance, String prefix, List<Candidate> candidates) {
+            if (prevSerialId + 1 >= groupStarts.length) {
+                return;
+            }
+            int from = groupStarts[prevSerialId];
+            int to = groupStarts[prevSerialId + 1];
+            if (from == to) {
+                return;
+            }
+
+            int length = query.length();
+            if (length > maxLength + maxDistance) {
+                return;
+            }
+            int width = 2 * maxDistance + 1;
+            int[][] rows = new int[Math.min(maxLength, length + maxDistance) + 1][width];
+            for (int b = 0; b < width; b++) {
+                int j = b - maxDistance;
+                rows[0][b] = j < 0 || j > length ? maxDistance + 1 : j;
+            }
+
+            String source = "";
+            int computed = 0;
+            int i = from;
+            while (i < to) {
+                String name = names[i];
+                if (Math.abs(name.length() - length) > maxDistance) {
+                    i++;
+                    continue;
+                }
+                int k = 0;
+                int shared = Math.min(computed, name.length());
+                while (k < shared && source.charAt(k) == name.charAt(k)) {
+                    k++;
+                }
+
+                boolean skipped = false;
+                while (k < name.length()) {
+                    k++;
+                    if (computeRow(rows, k, name, query, maxDistance) > maxDistance) {
+                        i = prefixEnd(i + 1, to, name, k);
+                        skipped = true;
+                        break;
+                    }
+                }
+                source = name;
+                computed = k;
+                if (!skipped) {
+                    int distance = rows[name.length()][length - name.length() + maxDistance];
+                    if (distance <= maxDistance) {
+                        candidates.add(new Candidate(prefix + name, items[i], distance));
+                    }
+                    i++;
+                }
+            }
+        }
+
+        /**
+         * Compute the band of rows[k] by the k-th character of the name, distances over the max distance are stored as max distance + 1.
+         *
+         * @param rows        rows of distances
+         * @param k           row to compute
+         * @param name        name
+         * @param query       missed name
+         * @param maxDistance max distance, the half width of the band
+         * @return min distance in the row
+         */
+        private static int computeRow(int[][] rows, int k, String name, String query, int maxDistance) {
+            int[] prev = rows[k - 1];
+            int[] row = rows[k];
+            int over = maxDistance + 1;
+            int last = row.length - 1;
+            char c = name.charAt(k - 1);
+            int min = over;
+            for (int b = 0; b <= last; b++) {
+                int j = k - maxDistance + b;
+                if (j < 0 || j > query.length()) {
+                    row[b] = over;
+                    continue;
+                }
+
+                int distance;
+                if (j == 0) {
+                    distance = k;
+                } else {
+                    // prev[b] is the distance to the first (j - 1) characters, prev[b + 1] and row[b - 1] to the first j and (j - 1) ones
+                    distance = Math.min(prev[b] + (c == query.charAt(j - 1) ? 0 : 1),
+                            Math.min(b < last ? prev[b + 1] : over, b > 0 ? row[b - 1] : over) + 1);
+                    if (k > 1 && j > 1 && c == query.charAt(j - 2) && name.charAt(k - 2) == query.charAt(j - 1)) {
+                        // swapped adjacent characters
+                        distance = Math.min(distance, rows[k - 2][b] + 1);
+                    }
+                }
+                row[b] = Math.min(distance, over);
+                min = Math.min(min, row[b]);
+            }
+
+            return min;
+        }
+
+        /**
+         * Find the first name from the index which does not start with the first k characters of the name,
+         * names with the same prefix are adjacent in a sorted group.
+         *
+         * @param from index of the first name to check, names before it in the group are not greater than the prefix
+         * @param to   end of the group
+         * @param name name
+         * @param k    length of the prefix
+         * @return index of the first name without the prefix
+         */
+        private int prefixEnd(int from, int to, String name, int k) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (names[mid].regionMatches(0, name, 0, k)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            return low;
+        }
+    }
+}
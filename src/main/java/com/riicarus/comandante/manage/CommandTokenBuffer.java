@@ -0,0 +1,149 @@
+package com.riicarus.comandante.manage;
+
+import com.riicarus.comandante.executor.ArgumentList;
+
+import java.util.Arrays;
+
+/**
+ * [FEATURE INFO]<br/>
+ * A reusable token buffer filled by the lexical analyzer.<br/>
+ * Every token is stored as three ints: type, offset and length, the offset and length point to a region of the command input string.<br/>
+ * So no CommandToken or String is created for a token, the token string is only created when it's really needed.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 15:52
+ * @since 3.1
+ */
+public class CommandTokenBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * Ints taken by one token: type, offset and length.
+     */
+    private static final int TOKEN_SIZE = 3;
+    /**
+     * CommandTokenType indexed by its value.
+     */
+    private static final CommandTokenType[] TOKEN_TYPES;
+
+    static {
+        int max = 0;
+        for (CommandTokenType type : CommandTokenType.values()) {
+            max = Math.max(max, type.getValue());
+        }
+        TOKEN_TYPES = new CommandTokenType[max + 1];
+        for (CommandTokenType type : CommandTokenType.values()) {
+            TOKEN_TYPES[type.getValue()] = type;
+        }
+    }
+
+    /**
+     * The command input string.
+     */
+    private String source = "";
+    /**
+     * Tokens, every token takes TOKEN_SIZE ints.
+     */
+    private int[] tokens = new int[DEFAULT_CAPACITY * TOKEN_SIZE];
+    /**
+     * Token count.
+     */
+    private int size = 0;
+
+    /**
+     * Clear the buffer for the next command input.
+     *
+     * @param source command input string
+     */
+    public void reset(String source) {
+        this.source = source;
+        this.size = 0;
+    }
+
+    /**
+     * Add a token.
+     *
+     * @param type   token type
+     * @param offset offset of the token in the command input string
+     * @param length length of the token, for argument token, it may have the ArgumentList.ESCAPED flag
+     */
+    public void add(CommandTokenType type, int offset, int length) {
+        int i = size * TOKEN_SIZE;
+        if (i == tokens.length) {
+            tokens = Arrays.copyOf(tokens, tokens.length << 1);
+        }
+
+        tokens[i] = type.getValue();
+        tokens[i + 1] = offset;
+        tokens[i + 2] = length;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public CommandTokenType getType(int index) {
+        return TOKEN_TYPES[tokens[index * TOKEN_SIZE]];
+    }
+
+    public int getOffset(int index) {
+        return tokens[index * TOKEN_SIZE + 1];
+    }
+
+    /**
+     * Get the length of the token without flags.
+     *
+     * @param index token index
+     * @return length
+     */
+    public int getLength(int index) {
+        return tokens[index * TOKEN_SIZE + 2] & ~ArgumentList.ESCAPED;
+    }
+
+    /**
+     * Get the length of the token with flags, used to create an ArgumentList.
+     *
+     * @param index token index
+     * @return length with flags
+     */
+    public int getRawLength(int index) {
+        return tokens[index * TOKEN_SIZE + 2];
+    }
+
+    /**
+     * Judge if the token is the given prefix identifier.
+     *
+     * @param index  token index
+     * @param prefix prefix identifier
+     * @return is the prefix identifier
+     */
+    public boolean isPrefix(int index, FixedLexicalItemValue prefix) {
+        return getType(index) == CommandTokenType.PREFIX_IDENTIFIER
+                && source.charAt(getOffset(index)) == prefix.getValue().charAt(0);
+    }
+
+    /**
+     * Create the string value of the token.
+     *
+     * @param index token index
+     * @return token value
+     */
+    public String getValue(int index) {
+        return ArgumentList.region(source, getOffset(index), getRawLength(index));
+    }
+
+    /**
+     * Create a CommandToken of the token.
+     *
+     * @param index token index
+     * @return CommandToken
+     */
+    public CommandToken toToken(int index) {
+        return new CommandToken(getType(index), getValue(index));
+    }
+}
@@ -1,21 +1,29 @@
 package com.riicarus.comandante.manage;
 
-import com.riicarus.comandante.exception.CommandExecutionException;
 import com.riicarus.comandante.exception.CommandNotFoundException;
 import com.riicarus.comandante.exception.CommandSyntaxException;
 import com.riicarus.comandante.executor.AnalyzedExecutor;
+import com.riicarus.comandante.executor.ArgumentList;
+import com.riicarus.comandante.executor.CommandArgumentType;
 import com.riicarus.comandante.executor.CommandExecutor;
 import com.riicarus.comandante.executor.GeneratedExecutor;
-import com.riicarus.comandante.main.CommandLogger;
+import com.riicarus.comandante.metrics.CommandMetrics;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * [FEATURE INFO]<br/>
  * Grammar analyzer. <br/>
  * The detailed grammar --> To doc.<br/>
- * Every option item will be analyzed and executed. But the main item will only be executed once, which is the last one.
+ * The analyzer is a predictive LL(1) parser, every step is decided by the current token's type,
+ * so no exception is created unless the command input is invalid, and the error is reported at the token where analyzing fails.<br/>
+ * Every production consumes at least one token or returns, and repetitions are loops,
+ * so analyzing is linear in the count of tokens and the stack depth does not grow with the input.<br/>
+ * Every option item will be analyzed and executed. But the main item will only be executed once, which is the last one.<br/>
+ * GrammarAnalyzer holds the state of the analyzing command and is not thread-safe, use one analyzer per thread.
  *
  * @author Riicarus
  * @create 2023-4-13 13:48
@@ -25,32 +33,68 @@ public class GrammarAnalyzer {
     /**
      * LexicalAnalyzer produces CommandTokens to GrammarAnalyzer.
      */
-    private final LexicalAnalyzer lexicalAnalyzer = new LexicalAnalyzer();
+    private final LexicalAnalyzer lexicalAnalyzer;
     /**
      * The itemManager maintains the registered command items.
      */
     private final CommandItemManager itemManager;
     /**
-     * The arguments which is belongs to the current command executor.
+     * The snapshot of registered items which the current command is analyzed against.
      */
-    private final List<String> arguments = new LinkedList<>();
+    private CommandRegistrySnapshot registry;
     /**
-     * The analyzed executors maintains the executors built by grammar analyzer.<br/>
+     * Metrics to record lex and parse latencies, null means not recording.
+     */
+    private final CommandMetrics metrics;
+    /**
+     * The arguments which is belongs to the current command executor, every argument takes two ints: offset and length in the command input.
+     */
+    private int[] arguments = new int[16];
+    /**
+     * The count of arguments which is belongs to the current command executor.
+     */
+    private int argumentCount = 0;
+    /**
+     * Types of the current arguments, a null element means the argument is a string.
+     */
+    private CommandArgumentType<?>[] argumentTypes = new CommandArgumentType<?>[8];
+    /**
+     * Converted values of the current arguments with primitive types.
+     */
+    private long[] argumentBits = new long[8];
+    /**
+     * Converted values of the current arguments with object types.
+     */
+    private Object[] argumentObjects = new Object[8];
+    /**
+     * Is any of the current arguments typed.
+     */
+    private boolean typedArguments = false;
+    /**
+     * The segments of the given command, which are split by the command linker(&amp;).
+     */
+    private final List<List<AnalyzedExecutor>> segments = new ArrayList<>();
+    /**
+     * Is every segment linked to the previous one by the parallel command linker(&amp;&amp;).
+     */
+    private boolean[] parallelLinked = new boolean[8];
+    /**
+     * The analyzed executors maintains the executors built by grammar analyzer in the current segment.<br/>
      * Each of the analyzer refers to a CommandExecutor in the given command.<br/>
      */
-    private final List<AnalyzedExecutor> analyzedExecutors = new LinkedList<>();
+    private List<AnalyzedExecutor> analyzedExecutors;
     /**
      * The generated executor is the executor generated by GrammarAnalyzer and will execute all analyzedExecutors in the given command.
      */
     private GeneratedExecutor generatedExecutor;
     /**
-     * Token stores the current analyzing token generated by LexicalAnalyzer.
+     * Tokens of the current command generated by LexicalAnalyzer.
      */
-    private CommandToken token;
+    private CommandTokenBuffer tokens;
     /**
-     * TokenCount points to the current analyzing token's index, used in exception handling.
+     * TokenIdx points to the current analyzing token's index.
      */
-    private int tokenCount = 0;
+    private int tokenIdx = -1;
     /**
      * PrevItem points to the previous analyzed CommandItem.
      */
@@ -71,14 +115,32 @@ public class GrammarAnalyzer {
      * PrevExecutableType refers the previous executor's type, which is Main, Opt or Arg.
      */
     private PrevExecutableType prevExecutableType;
+
+    public GrammarAnalyzer(CommandItemManager itemManager) {
+        this(itemManager, CommandLimits.DEFAULT);
+    }
+
     /**
-     * PrevException maintains the previous exception to get the real exception when facing another exception.<br/>
-     * It's updated in the method which will not throw command syntax exception.
+     * Create a grammar analyzer with the given limits of command input.
+     *
+     * @param itemManager item manager maintains the registered command items
+     * @param limits      limits of the command input
      */
-    private CommandSyntaxException prevException;
+    public GrammarAnalyzer(CommandItemManager itemManager, CommandLimits limits) {
+        this(itemManager, limits, null);
+    }
 
-    public GrammarAnalyzer(CommandItemManager itemManager) {
+    /**
+     * Create a grammar analyzer which records lex and parse latencies to the metrics.
+     *
+     * @param itemManager item manager maintains the registered command items
+     * @param limits      limits of the command input
+     * @param metrics     metrics to record latencies, null means not recording
+     */
+    public GrammarAnalyzer(CommandItemManager itemManager, CommandLimits limits, CommandMetrics metrics) {
         this.itemManager = itemManager;
+        this.lexicalAnalyzer = new LexicalAnalyzer(limits);
+        this.metrics = metrics;
     }
 
     /**
@@ -88,61 +150,279 @@ public class GrammarAnalyzer {
      * @return generated executor
      */
     public GeneratedExecutor analyze(String commandStr) {
+        return analyze(commandStr, itemManager.getSnapshot());
+    }
+
+    /**
+     * Analyze one command input against the given snapshot of registered items.
+     *
+     * @param commandStr command input
+     * @param registry   snapshot of registered items
+     * @return generated executor
+     */
+    public GeneratedExecutor analyze(String commandStr, CommandRegistrySnapshot registry) {
+        long start = System.nanoTime();
         resetForNextCommand();
+        this.registry = registry;
         lexicalAnalyzer.input(commandStr);
+        tokens = lexicalAnalyzer.analyzeAll();
+        long lexed = System.nanoTime();
         next();
         S();
 
-        generatedExecutor = new GeneratedExecutor(() -> {
-            if (analyzedExecutors.isEmpty()) {
-                throw new CommandExecutionException("No executable command found.");
+        // Copy the segments, the list will be reused by the next command.
+        List<List<AnalyzedExecutor>> executableSegments = new ArrayList<>(segments.size());
+        boolean[] executableParallelLinked = new boolean[segments.size()];
+        // A segment is parallel linked to the previous executable one only if all links between them are parallel.
+        boolean parallel = true;
+        for (int i = 0; i < segments.size(); i++) {
+            parallel &= parallelLinked[i];
+            List<AnalyzedExecutor> segment = segments.get(i);
+            if (!segment.isEmpty()) {
+                executableParallelLinked[executableSegments.size()] = parallel && !executableSegments.isEmpty();
+                executableSegments.add(segment);
+                parallel = true;
             }
+        }
+        generatedExecutor = new GeneratedExecutor(executableSegments, Arrays.copyOf(executableParallelLinked, executableSegments.size()));
 
-            for (AnalyzedExecutor executor : analyzedExecutors) {
-                CommandLogger.log(executor.execute().toString());
-            }
-        });
+        if (metrics != null) {
+            metrics.recordLex(lexed - start);
+            metrics.recordParse(System.nanoTime() - lexed);
+        }
 
         return generatedExecutor;
     }
 
+    /**
+     * Complete the word at the cursor of a partial command input against the given snapshot of registered items.<br/>
+     * The input before the word is analyzed like a command, but an unfinished command is allowed and nothing is executed,
+     * then the word is completed by the items which can be written behind the analyzed items:
+     * main items only before any opt or quoted argument of the command, opt items written as "--name" or "-n",
+     * and the argument item as a placeholder.<br/>
+     * If the input before the word is invalid, or the cursor is in a quoted argument, nothing is completed.
+     *
+     * @param partialInput partial command input
+     * @param cursor       cursor in the input, the input after it is ignored
+     * @param registry     snapshot of registered items
+     * @param limit        max count of completions
+     * @return completions
+     */
+    public CommandCompletion complete(String partialInput, int cursor, CommandRegistrySnapshot registry, int limit) {
+        int wordEnd = Math.max(0, Math.min(cursor, partialInput.length()));
+        // words are split by blank space, and the pipeline or command linker may be followed by a word without blank space
+        int start = partialInput.lastIndexOf(' ', wordEnd - 1) + 1;
+        while (start < wordEnd && (isPrefixChar(partialInput.charAt(start), FixedLexicalItemValue.PIPELINE_IDENTIFIER)
+                || isPrefixChar(partialInput.charAt(start), FixedLexicalItemValue.COMMAND_LINKER))) {
+            start++;
+        }
+        String word = partialInput.substring(start, wordEnd);
+        if (word.startsWith(FixedLexicalItemValue.ARGUMENT_QUOTE.getValue())) {
+            return CommandCompletion.empty(wordEnd);
+        }
+
+        boolean mainAllowed;
+        try {
+            resetForNextCommand();
+            this.registry = registry;
+            lexicalAnalyzer.input(partialInput.substring(0, start));
+            tokens = lexicalAnalyzer.analyzeAll();
+            // a quoted argument without the right quote contains the blank space before the word
+            if (tokens.size() > 0 && CommandTokenType.ARGUMENT.equals(tokens.getType(tokens.size() - 1))) {
+                return CommandCompletion.empty(wordEnd);
+            }
+
+            next();
+            while (!end) {
+                C();
+                if (!end) {
+                    T();
+                }
+            }
+            mainAllowed = isMainAllowed();
+        } catch (CommandSyntaxException e) {
+            return CommandCompletion.empty(wordEnd);
+        }
+
+        CommandSuggestionIndex index = registry.getSuggestionIndex();
+        List<String> candidates;
+        if (word.startsWith("--")) {
+            candidates = index.complete(word.substring(2), prevMainItem, CommandSuggestionIndex.OPT_ITEMS, null, limit);
+        } else if (word.startsWith(FixedLexicalItemValue.OPT_PREFIX.getValue())) {
+            String alias = word.substring(1);
+            int kinds = alias.isEmpty() ? CommandSuggestionIndex.OPT_ITEMS | CommandSuggestionIndex.OPT_ALIASES : CommandSuggestionIndex.OPT_ALIASES;
+            candidates = index.complete(alias, prevMainItem, kinds, null, limit);
+        } else {
+            // every word behind the first main item may be an argument
+            CommandItem argumentItem = CommandItem.ROOT.equals(prevItem) ? null : registry.getItem(FixedLexicalItemValue.ARGUMENT.getValue(), prevItem);
+            candidates = index.complete(word, prevMainItem, mainAllowed ? CommandSuggestionIndex.MAIN_ITEMS : 0, argumentItem, limit);
+        }
+
+        return new CommandCompletion(start, wordEnd, candidates);
+    }
+
+    /**
+     * Judge if a main item can be written behind the analyzed tokens, it can't be written behind any opt or quoted argument of the command.
+     *
+     * @return is main item allowed
+     */
+    protected boolean isMainAllowed() {
+        for (int i = tokens.size() - 1; i >= 0; i--) {
+            if (tokens.isPrefix(i, FixedLexicalItemValue.PIPELINE_IDENTIFIER) || tokens.isPrefix(i, FixedLexicalItemValue.COMMAND_LINKER)) {
+                return true;
+            }
+            if (tokens.isPrefix(i, FixedLexicalItemValue.OPT_PREFIX) || tokens.isPrefix(i, FixedLexicalItemValue.ARGUMENT_QUOTE)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isPrefixChar(char c, FixedLexicalItemValue prefix) {
+        return prefix.getValue().charAt(0) == c;
+    }
+
     /**
      * Iterate next token, get from lexical analyzer.<br/>
      * If the command's tokens is all analyzed, it will not iterate.
      */
     protected void next() {
-        token = lexicalAnalyzer.analyzeOne();
-        if (token == null) {
-            end = true;
-        } else {
-            tokenCount++;
+        if (tokenIdx < tokens.size()) {
+            tokenIdx++;
+        }
+        end = tokenIdx >= tokens.size();
+    }
+
+    /**
+     * Get the current token's type.
+     *
+     * @return token type, null if all tokens are analyzed
+     */
+    protected CommandTokenType tokenType() {
+        return end ? null : tokens.getType(tokenIdx);
+    }
+
+    /**
+     * Judge if the current token is the given prefix identifier.
+     *
+     * @param prefix prefix identifier
+     * @return is the prefix identifier
+     */
+    protected boolean isPrefix(FixedLexicalItemValue prefix) {
+        return !end && tokens.isPrefix(tokenIdx, prefix);
+    }
+
+    /**
+     * Get the description of the current token, only used in exception messages.
+     *
+     * @return token description
+     */
+    protected String tokenString() {
+        return end ? "END" : tokens.toToken(tokenIdx).toString();
+    }
+
+    /**
+     * Find the item named by the current token.
+     *
+     * @param prevItem previous item
+     * @return CommandItem, null if not found
+     */
+    protected CommandItem findTokenItem(CommandItem prevItem) {
+        return registry.getItem(tokens.getSource(), tokens.getOffset(tokenIdx), tokens.getLength(tokenIdx), prevItem);
+    }
+
+    /**
+     * Find the opt item aliased by the current token.
+     *
+     * @param prevItem previous item
+     * @return CommandItem, null if not found
+     */
+    protected CommandItem findTokenItemAlias(CommandItem prevItem) {
+        return registry.getItemAlias(tokens.getSource(), tokens.getOffset(tokenIdx), tokens.getLength(tokenIdx), prevItem);
+    }
+
+    /**
+     * Add the current token to the arguments of the current executor, and convert it if the argument item is typed.
+     *
+     * @param type type of the argument item, null means the argument is a string
+     * @throws CommandSyntaxException runtime exception, if the argument can not be converted to the type
+     */
+    protected void addArgument(CommandArgumentType<?> type) throws CommandSyntaxException {
+        int i = argumentCount << 1;
+        if (i == arguments.length) {
+            arguments = Arrays.copyOf(arguments, arguments.length << 1);
+        }
+        arguments[i] = tokens.getOffset(tokenIdx);
+        arguments[i + 1] = tokens.getRawLength(tokenIdx);
+
+        if (argumentCount == argumentTypes.length) {
+            argumentTypes = Arrays.copyOf(argumentTypes, argumentCount << 1);
+            argumentBits = Arrays.copyOf(argumentBits, argumentCount << 1);
+            argumentObjects = Arrays.copyOf(argumentObjects, argumentCount << 1);
+        }
+        argumentTypes[argumentCount] = type;
+        argumentObjects[argumentCount] = null;
+        if (type != null) {
+            String value = ArgumentList.region(tokens.getSource(), arguments[i], arguments[i + 1]);
+            try {
+                if (type.isPrimitive()) {
+                    argumentBits[argumentCount] = type.convertToBits(value);
+                } else {
+                    argumentObjects[argumentCount] = type.convert(value);
+                }
+            } catch (RuntimeException e) {
+                throw new CommandSyntaxException("Argument type not feat, near: " + tokenString() + ", token idx: " + (tokenIdx + 1) + ". \n" +
+                        "Want: " + type.getName() + ", get: '" + value + "'.", e);
+            }
+            typedArguments = true;
         }
+        argumentCount++;
     }
 
     /**
      * Reset arguments for next executor.
      */
     protected void resetArguments() {
-        this.arguments.clear();
+        this.argumentCount = 0;
+        this.typedArguments = false;
     }
 
     /**
      * Reset grammar analyzer's variables for next command input.
      */
     protected void resetForNextCommand() {
-        this.token = null;
-        this.tokenCount = 0;
+        this.tokens = null;
+        this.tokenIdx = -1;
         this.prevItem = CommandItem.ROOT;
         this.prevMainItem = CommandItem.ROOT;
         this.end = false;
         this.prevExecutableType = null;
-        this.prevException = null;
+        this.needPipe = false;
         this.generatedExecutor = null;
-        this.analyzedExecutors.clear();
+        this.segments.clear();
+
+        nextSegment(false);
 
         resetArguments();
     }
 
+    /**
+     * Start a new segment of the command, the segment list is not reused because it's held by the generated executor.
+     *
+     * @param parallel is the segment linked to the previous one by the parallel command linker(&amp;&amp;)
+     */
+    protected void nextSegment(boolean parallel) {
+        int i = segments.size();
+        if (i == parallelLinked.length) {
+            parallelLinked = Arrays.copyOf(parallelLinked, i << 1);
+        }
+        parallelLinked[i] = parallel;
+
+        this.analyzedExecutors = new ArrayList<>();
+        this.segments.add(analyzedExecutors);
+    }
+
     /**
      * Update previous item. If the item is null, it will throw an exception.
      *
@@ -151,8 +431,7 @@ public class GrammarAnalyzer {
      */
     protected void updatePrevItem(CommandItem item) throws CommandNotFoundException {
         if (item == null) {
-            throw new CommandNotFoundException("Command not found, near: " + token.toString() + ", token idx: " + tokenCount + ". \n" +
-                    "Please check your command definition.");
+            throw notFoundException();
         }
 
         prevItem = item;
@@ -166,8 +445,7 @@ public class GrammarAnalyzer {
      */
     protected void updatePrevMainItem(CommandItem item) throws CommandNotFoundException {
         if (item == null) {
-            throw new CommandNotFoundException("Command not found, near: " + token.toString() + ", token idx: " + tokenCount + ". \n" +
-                    "Please check your command definition.");
+            throw notFoundException();
         }
 
         prevMainItem = item;
@@ -184,11 +462,19 @@ public class GrammarAnalyzer {
         if (executor != null) {
             AnalyzedExecutor analyzedExecutor = new AnalyzedExecutor();
             analyzedExecutor.setCommandExecutor(executor);
-            analyzedExecutor.setArguments(arguments);
+            if (argumentCount == 0) {
+                analyzedExecutor.setArguments(ArgumentList.EMPTY);
+            } else if (typedArguments) {
+                analyzedExecutor.setArguments(new ArgumentList(tokens.getSource(), Arrays.copyOf(arguments, argumentCount << 1), argumentCount,
+                        Arrays.copyOf(argumentTypes, argumentCount), Arrays.copyOf(argumentBits, argumentCount), Arrays.copyOf(argumentObjects, argumentCount)));
+            } else {
+                analyzedExecutor.setArguments(new ArgumentList(tokens.getSource(), Arrays.copyOf(arguments, argumentCount << 1), argumentCount));
+            }
 
             if (needPipe) {
-                analyzedExecutor.setPipeFromExecutor(analyzedExecutors.get(analyzedExecutors.size() - 1));
-                analyzedExecutors.remove(analyzedExecutors.size() - 1);
+                if (!analyzedExecutors.isEmpty()) {
+                    analyzedExecutor.setPipeFromExecutor(analyzedExecutors.remove(analyzedExecutors.size() - 1));
+                }
                 needPipe = false;
             }
 
@@ -198,241 +484,279 @@ public class GrammarAnalyzer {
         }
     }
 
+    /**
+     * S -> CN, N -> TCN | ε<br/>
+     * The segments are analyzed in a loop, so the stack depth does not grow with the count of segments.
+     *
+     * @throws CommandSyntaxException runtime exception
+     */
     protected void S() throws CommandSyntaxException {
         C();
-        N();
-
-        if (!end && prevException != null) {
-            throw prevException;
+        while (!end) {
+            T();
+            C();
         }
 
         // M -> End, O -> End, A -> End
-        CommandExecutor executor = itemManager.findExecutor(prevItem);
+        CommandExecutor executor = registry.findExecutor(prevItem);
         addAnalyzedExecutor(executor);
     }
 
+    /**
+     * C -> MM1Y
+     *
+     * @throws CommandSyntaxException runtime exception
+     */
     protected void C() throws CommandSyntaxException {
         M();
         M1();
         Y();
     }
 
-    protected void N() {
-        if (!end) {
-            try {
-                T();
-                C();
-                N();
-            } catch (CommandSyntaxException e) {
-                prevException = e;
-            }
+    /**
+     * M -> main | A1<br/>
+     * A word is a main item if it's registered behind the previous main item, otherwise it's an argument.
+     *
+     * @throws CommandSyntaxException runtime exception
+     */
+    protected void M() throws CommandSyntaxException {
+        if (!isMainOrArgument()) {
+            throw syntaxException("MAIN or ARGUMENT");
         }
-    }
 
-    protected void M() throws CommandSyntaxException {
-        if (CommandTokenType.MAIN.equals(token.getType())) {
-            CommandItem item = itemManager.getItem(token.getValue(), prevMainItem);
+        CommandItem item = findTokenItem(prevMainItem);
+        if (item != null) {
+            // Here is main item.
             updatePrevItem(item);
             updatePrevMainItem(item);
-            prevExecutableType = PrevExecutableType.MAIN;
-            next();
-        } else if (CommandTokenType.MAIN_OR_ARGUMENT.equals(token.getType())) {
-            CommandItem item = itemManager.getItem(token.getValue(), prevMainItem);
-            if (item != null) {
-                // Here is main item.
-                updatePrevItem(item);
-                updatePrevMainItem(item);
-                next();
-            } else if (!CommandItem.ROOT.equals(prevItem)) {
-                A1();
-            } else {
-                if (prevException != null) {
-                    throw prevException;
-                } else {
-                    throw new CommandSyntaxException("Command type not feat, near: " + token.toString() + ", token idx: " + tokenCount + ". \n" +
-                            "Want: MAIN or ARGUMENT, get: " + token.getType() + ". \n" +
-                            "Please check your command input, and the pipeline(|) or command linker(&) can only be followed by MAIN.");
-                }
+            if (CommandTokenType.MAIN.equals(tokenType())) {
+                prevExecutableType = PrevExecutableType.MAIN;
             }
+            next();
+        } else if (CommandTokenType.MAIN_OR_ARGUMENT.equals(tokenType()) && !CommandItem.ROOT.equals(prevItem)) {
+            A1();
         } else {
-            if (prevException != null) {
-                throw prevException;
-            } else {
-                throw new CommandSyntaxException("Command type not feat, near: " + token.toString() + ", token idx: " + tokenCount + ". \n" +
-                        "Want: MAIN or ARGUMENT, get: " + token.getType() + ". \n" +
-                        "Please check your command input.");
-            }
+            throw notFoundException(suggestMain());
         }
     }
 
-    protected void M1() {
-        if (!end) {
-            try {
-                M();
-                M1();
-            } catch (CommandSyntaxException e) {
-                prevException = e;
-            }
+    /**
+     * M1 -> MM1 | ε
+     *
+     * @throws CommandSyntaxException runtime exception
+     */
+    protected void M1() throws CommandSyntaxException {
+        while (isMainOrArgument()) {
+            M();
         }
     }
 
+    /**
+     * Y -> OY | AY | ε<br/>
+     * The words after an option or a quoted argument can only be arguments.
+     *
+     * @throws CommandSyntaxException runtime exception
+     */
     protected void Y() throws CommandSyntaxException {
-        if (!end) {
-            try {
+        while (!end) {
+            if (isPrefix(FixedLexicalItemValue.OPT_PREFIX)) {
                 O();
-                Y();
-                return;
-            } catch (CommandSyntaxException e) {
-                prevException = e;
-            }
-
-            try {
+            } else if (isPrefix(FixedLexicalItemValue.ARGUMENT_QUOTE)) {
                 A();
-                Y();
-            } catch (CommandSyntaxException e) {
-                prevException = e;
+            } else if (CommandTokenType.MAIN_OR_ARGUMENT.equals(tokenType())) {
+                A1();
+            } else {
+                return;
             }
         }
     }
 
+    /**
+     * T -> | or &amp; or &amp;&amp;
+     *
+     * @throws CommandSyntaxException runtime exception
+     */
     protected void T() throws CommandSyntaxException {
-        boolean isPipe = false;
-
-        if (CommandTokenType.PREFIX_IDENTIFIER.equals(token.getType())) {
-            CommandItem prevCommandItem = this.prevItem;
-            if (FixedLexicalItemValue.PIPELINE_IDENTIFIER.getValue().equals(token.getValue())) {
-                this.prevItem = CommandItem.ROOT;
-                this.prevMainItem = CommandItem.ROOT;
-                isPipe = true;
-                next();
-            } else if (FixedLexicalItemValue.COMMAND_LINKER.getValue().equals(token.getValue())) {
-                this.prevItem = CommandItem.ROOT;
-                this.prevMainItem = CommandItem.ROOT;
-                next();
-            } else {
-                if (prevException != null) {
-                    throw prevException;
-                } else {
-                    throw new CommandSyntaxException("Command type not feat, near: " + token.toString() + ", token idx: " + tokenCount + ". \n" +
-                            "Want: PIPELINE(|) or COMMAND_LINKER(&), get: " + token.getType() + ". \n" +
-                            "Please check your command input.");
-                }
-            }
+        boolean isPipe;
+        boolean isParallel = false;
+        if (isPrefix(FixedLexicalItemValue.PIPELINE_IDENTIFIER)) {
+            isPipe = true;
+        } else if (isPrefix(FixedLexicalItemValue.COMMAND_LINKER)) {
+            isPipe = false;
+            isParallel = isParallelLinker();
+        } else {
+            throw syntaxException("PIPELINE(|) or COMMAND_LINKER(&)");
+        }
 
-            // M -> T, O -> T, A -> T
-            CommandExecutor executor = itemManager.findExecutor(prevCommandItem);
-            addAnalyzedExecutor(executor);
+        // M -> T, O -> T, A -> T
+        CommandExecutor executor = registry.findExecutor(prevItem);
+        addAnalyzedExecutor(executor);
+
+        this.prevItem = CommandItem.ROOT;
+        this.prevMainItem = CommandItem.ROOT;
+        next();
+        if (isParallel) {
+            next();
+        }
 
-            // If is pipeline identifier, set needPipe to true.
-            needPipe = isPipe;
+        // If is pipeline identifier, set needPipe to true.
+        needPipe = isPipe;
+        // If is command linker, the following executors belong to the next segment.
+        if (!isPipe) {
+            nextSegment(isParallel);
         }
     }
 
+    /**
+     * Judge if the current command linker is followed by another one without blank space, which forms the parallel command linker(&amp;&amp;).
+     *
+     * @return is parallel command linker
+     */
+    protected boolean isParallelLinker() {
+        int nextIdx = tokenIdx + 1;
+        return nextIdx < tokens.size()
+                && tokens.isPrefix(nextIdx, FixedLexicalItemValue.COMMAND_LINKER)
+                && tokens.getOffset(nextIdx) == tokens.getOffset(tokenIdx) + 1;
+    }
+
+    /**
+     * A -> 'A1'<br/>
+     * The right argument quote may be omitted at the end of the command.
+     *
+     * @throws CommandSyntaxException runtime exception
+     */
     protected void A() throws CommandSyntaxException {
-        if (CommandTokenType.PREFIX_IDENTIFIER.equals(token.getType()) && FixedLexicalItemValue.ARGUMENT_QUOTE.getValue().equals(token.getValue())) {
+        next();
+        A1();
+        if (isPrefix(FixedLexicalItemValue.ARGUMENT_QUOTE)) {
             next();
-            A1();
-            if (CommandTokenType.PREFIX_IDENTIFIER.equals(token.getType()) && FixedLexicalItemValue.ARGUMENT_QUOTE.getValue().equals(token.getValue())) {
-                next();
-            } else {
-                if (prevException != null) {
-                    throw prevException;
-                } else {
-                    throw new CommandSyntaxException("Command type not feat, near: " + token.toString() + ", token idx: " + tokenCount + ". \n" +
-                            "Want: ARGUMENT_QUOTE, get: " + token.getType() + ". \n" +
-                            "Please check your command input.");
-                }
-            }
-        } else if (CommandTokenType.MAIN_OR_ARGUMENT.equals(token.getType()) && !CommandItem.ROOT.equals(prevItem)) {
-            A1();
-        } else {
-            if (prevException != null) {
-                throw prevException;
-            } else {
-                throw new CommandSyntaxException("Command type not feat, near: " + token.toString() + ", token idx: " + tokenCount + ". \n" +
-                        "Want: ARGUMENT_QUOTE, get: " + token.getType() + ". \n" +
-                        "Please check your command input.");
-            }
+        } else if (!end) {
+            throw syntaxException("ARGUMENT_QUOTE");
         }
     }
 
     protected void A1() throws CommandSyntaxException {
-        if (CommandTokenType.ARGUMENT.equals(token.getType()) || CommandTokenType.MAIN_OR_ARGUMENT.equals(token.getType())) {
-            updatePrevItem(itemManager.getItem(FixedLexicalItemValue.ARGUMENT.getValue(), prevItem));
-            arguments.add(token.getValue());
-            prevExecutableType = PrevExecutableType.ARG;
-            next();
-        } else {
-            if (prevException != null) {
-                throw prevException;
-            } else {
-                throw new CommandSyntaxException("Command type not feat, near: " + token.toString() + ", token idx: " + tokenCount + ". \n" +
-                        "Want: ARGUMENT, get: " + token.getType() + ". \n" +
-                        "Please check your command input.");
-            }
+        if (!CommandTokenType.ARGUMENT.equals(tokenType()) && !CommandTokenType.MAIN_OR_ARGUMENT.equals(tokenType())) {
+            throw syntaxException("ARGUMENT");
+        }
+
+        CommandItem item = registry.getItem(FixedLexicalItemValue.ARGUMENT.getValue(), prevItem);
+        if (item == null && prevItem == prevMainItem && CommandTokenType.MAIN_OR_ARGUMENT.equals(tokenType())) {
+            // a word right behind a main item which takes no argument may be a misspelled main item
+            throw notFoundException(suggestMain());
         }
+        updatePrevItem(item);
+        addArgument(prevItem.getArgumentType());
+        prevExecutableType = PrevExecutableType.ARG;
+        next();
     }
 
+    /**
+     * O -> -O1O2 | --O1
+     *
+     * @throws CommandSyntaxException runtime exception
+     */
     protected void O() throws CommandSyntaxException {
-        if (CommandTokenType.PREFIX_IDENTIFIER.equals(token.getType()) && FixedLexicalItemValue.OPT_PREFIX.getValue().equals(token.getValue())) {
+        next();
+        if (isPrefix(FixedLexicalItemValue.OPT_PREFIX)) {
             next();
-            if (CommandTokenType.PREFIX_IDENTIFIER.equals(token.getType()) && FixedLexicalItemValue.OPT_PREFIX.getValue().equals(token.getValue())) {
-                next();
-                O1(false);
-            } else {
-                O1(true);
-                O2();
-            }
+            O1(false);
         } else {
-            if (prevException != null) {
-                throw prevException;
-            } else {
-                throw new CommandSyntaxException("Command type not feat, near: " + token.toString() + ", token idx: " + tokenCount + ". \n" +
-                        "Want: OPT_PREFIX, get: " + token.getType() + ". \n" +
-                        "Please check your command input.");
-            }
+            O1(true);
+            O2();
         }
     }
 
+    /**
+     * O2 -> O1O2 | ε
+     *
+     * @throws CommandSyntaxException runtime exception
+     */
     protected void O2() throws CommandSyntaxException {
-        if (!end) {
-            try {
-                O1(true);
-                O2();
-            } catch (CommandSyntaxException e) {
-                prevException = e;
-            }
+        while (CommandTokenType.OPT.equals(tokenType())) {
+            O1(true);
         }
     }
 
     protected void O1(boolean isAlias) throws CommandSyntaxException {
-        if (CommandTokenType.OPT.equals(token.getType())) {
-            if (PrevExecutableType.OPT.equals(prevExecutableType) || PrevExecutableType.ARG.equals(prevExecutableType)) {
-                // O -> O, A -> O
-                CommandExecutor executor = itemManager.findExecutor(prevItem);
-                addAnalyzedExecutor(executor);
-            }
-
-            CommandItem item;
-            if (isAlias) {
-                item = itemManager.getItemAlias(token.getValue(), prevMainItem);
-            } else {
-                item = itemManager.getItem(token.getValue(), prevMainItem);
-            }
-            updatePrevItem(item);
+        if (!CommandTokenType.OPT.equals(tokenType())) {
+            throw syntaxException("OPT");
+        }
 
-            prevExecutableType = PrevExecutableType.OPT;
+        if (PrevExecutableType.OPT.equals(prevExecutableType) || PrevExecutableType.ARG.equals(prevExecutableType)) {
+            // O -> O, A -> O
+            CommandExecutor executor = registry.findExecutor(prevItem);
+            addAnalyzedExecutor(executor);
+        }
 
-            next();
+        CommandItem item;
+        if (isAlias) {
+            item = findTokenItemAlias(prevMainItem);
         } else {
-            if (prevException != null) {
-                throw prevException;
-            } else {
-                throw new CommandSyntaxException("Command type not feat, near: " + token.toString() + ", token idx: " + tokenCount + ". \n" +
-                        "Want: OPT, get: " + token.getType() + ". \n" +
-                        "Please check your command input.");
-            }
+            item = findTokenItem(prevMainItem);
+        }
+        if (item == null) {
+            String name = tokens.getValue(tokenIdx);
+            throw notFoundException(isAlias
+                    ? registry.getSuggestionIndex().suggestOptAlias(name, prevMainItem)
+                    : registry.getSuggestionIndex().suggestOpt(name, prevMainItem));
         }
+        updatePrevItem(item);
+
+        prevExecutableType = PrevExecutableType.OPT;
+
+        next();
+    }
+
+    /**
+     * Judge if the current token can be a main item or an argument item.
+     *
+     * @return is main or argument token
+     */
+    protected boolean isMainOrArgument() {
+        CommandTokenType type = tokenType();
+        return CommandTokenType.MAIN_OR_ARGUMENT.equals(type) || CommandTokenType.MAIN.equals(type);
+    }
+
+    /**
+     * Create the syntax exception of the current token, only called when the command input is invalid.
+     *
+     * @param want wanted token
+     * @return CommandSyntaxException
+     */
+    protected CommandSyntaxException syntaxException(String want) {
+        return new CommandSyntaxException("Command type not feat, near: " + tokenString() + ", token idx: " + (tokenIdx + 1) + ". \n" +
+                "Want: " + want + ", get: " + tokenType() + ". \n" +
+                "Please check your command input.");
+    }
+
+    /**
+     * Create the exception of the current token which is not registered, only called when the command input is invalid.
+     *
+     * @return CommandNotFoundException
+     */
+    protected CommandNotFoundException notFoundException() {
+        return notFoundException(Collections.emptyList());
+    }
+
+    /**
+     * Create the exception of the current token which is not registered, with suggestions of registered items.
+     *
+     * @param suggestions suggested items, the closest first
+     * @return CommandNotFoundException
+     */
+    protected CommandNotFoundException notFoundException(List<String> suggestions) {
+        return new CommandNotFoundException("Command not found, near: " + tokenString() + ", token idx: " + (tokenIdx + 1) + ". \n" +
+                "Please check your command definition.", suggestions);
+    }
+
+    /**
+     * Suggest main items behind the previous main item for the current token, only called when the command input is invalid.
+     *
+     * @return suggested items, the closest first
+     */
+    protected List<String> suggestMain() {
+        return registry.getSuggestionIndex().suggestMain(tokens.getValue(tokenIdx), prevMainItem);
     }
 
     enum PrevExecutableType {
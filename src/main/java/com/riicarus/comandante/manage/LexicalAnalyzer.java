@@ -1,14 +1,15 @@
 package com.riicarus.comandante.manage;
 
 import com.riicarus.comandante.exception.CommandSyntaxException;
-
-import java.nio.charset.StandardCharsets;
-import java.util.LinkedList;
-import java.util.Queue;
+import com.riicarus.comandante.executor.ArgumentList;
 
 /**
  * [FEATURE INFO]<br/>
- * lexical analyzer for command
+ * lexical analyzer for command<br/>
+ * The analyzer scans the command input string and writes tokens to a reusable CommandTokenBuffer,
+ * every token is a region of the input string, so analyzing creates no token object or string.<br/>
+ * The analyzer works on unicode code points, so non-ASCII letters and digits can start a main or argument item,
+ * and a supplementary character is never split.
  *
  * @author Riicarus
  * @create 2023-4-11 11:14
@@ -17,285 +18,288 @@ import java.util.Queue;
 public class LexicalAnalyzer {
 
     /**
-     * The StringBuilder used to build a token.
+     * Chars below it are ASCII chars, which can be judged without decoding code points.
      */
-    private final StringBuilder tokenBuilder = new StringBuilder();
+    private static final char NON_ASCII = 0x80;
+
     /**
-     * A queue of CommandToken. Some analyze process may produce more than one token, so we use a queue to maintain them.
+     * Limits of the command input.
      */
-    private final Queue<CommandToken> tokens = new LinkedList<>();
+    private final CommandLimits limits;
     /**
-     * The command string input, stored as a byte array, used to get byte during analyze process.
+     * The buffer of analyzed tokens, reused by every command input.
      */
-    private byte[] buffer;
+    private final CommandTokenBuffer tokenBuffer = new CommandTokenBuffer();
     /**
-     * The current pointer points to the current byte in the buffer.
+     * The command string input.
      */
-    private int idx = -1;
+    private String buffer = "";
     /**
-     * The current used byte.
+     * The current pointer points to the current char in the buffer.
      */
-    private byte b = ' ';
+    private int idx = 0;
     /**
-     * The count of the argument quote.
+     * If the current command input is analyzed to the token buffer.
      */
-    private int quoteCount = 0;
+    private boolean analyzed = false;
     /**
-     * The flag which represents if next escape character needs to escape.
+     * The index of the next token returned by analyzeOne().
      */
-    private boolean needEscape = true;
+    private int readIdx = 0;
+
+    public LexicalAnalyzer() {
+        this(CommandLimits.DEFAULT);
+    }
 
     /**
-     * Reset variables for next command input.
+     * Create a lexical analyzer with the given limits.
+     *
+     * @param limits limits of the command input
      */
-    protected void reset() {
-        this.idx = -1;
-        this.b = ' ';
-        this.quoteCount = 0;
-        tokens.clear();
-        resetForNextToken();
+    public LexicalAnalyzer(CommandLimits limits) {
+        this.limits = limits;
     }
 
     /**
-     * Reset variables for next token in one command input.
+     * Reset variables for next command input.
      */
-    protected void resetForNextToken() {
-        tokenBuilder.delete(0, tokenBuilder.length());
-        this.needEscape = true;
+    protected void reset() {
+        this.idx = 0;
+        this.analyzed = false;
+        this.readIdx = 0;
     }
 
     /**
      * Set next command input to analyzer.
      *
      * @param command command string input
+     * @throws CommandSyntaxException runtime exception, if the command exceeds the input length limit
      */
-    public void input(String command) {
+    public void input(String command) throws CommandSyntaxException {
+        limits.checkInput(command);
         reset();
 
-        buffer = command.getBytes(StandardCharsets.UTF_8);
+        buffer = command;
+        tokenBuffer.reset(command);
     }
 
     /**
-     * Analyze next one token, used for GrammarAnalyzer to get a token each time.
+     * Analyze all tokens of the command input to the token buffer.<br/>
+     * The buffer is reused by the next command input, so it should not be held.
      *
-     * @return next CommandToken
+     * @return token buffer
+     * @throws CommandSyntaxException runtime exception
      */
-    public CommandToken analyzeOne() {
-        // get if queue has more token
-        if (!tokens.isEmpty()) {
-            return tokens.poll();
+    public CommandTokenBuffer analyzeAll() throws CommandSyntaxException {
+        if (!analyzed) {
+            analyzed = true;
+            while (!isEnd()) {
+                analyzeNext();
+            }
         }
 
-        CommandToken token;
+        return tokenBuffer;
+    }
 
-        resetForNextToken();
+    /**
+     * Analyze next one token, it creates a CommandToken for each token.
+     *
+     * @return next CommandToken, null if all tokens are returned
+     * @throws CommandSyntaxException runtime exception
+     */
+    public CommandToken analyzeOne() throws CommandSyntaxException {
+        analyzeAll();
 
-        if (isEnd()) {
+        if (readIdx >= tokenBuffer.size()) {
             return null;
         }
 
-        // set pointer to next byte to analyze
-        nextByte();
+        return tokenBuffer.toToken(readIdx++);
+    }
+
+    /**
+     * Analyze the tokens start from the next no-blank char.
+     */
+    protected void analyzeNext() {
         ignoreBlankSpace();
 
-        if (isLetter() || isDigit()) {
+        if (isEnd()) {
+            return;
+        }
+
+        char c = buffer.charAt(idx);
+        if (isLetter(c) || isDigit(c) || c >= NON_ASCII && isLetterOrDigitCodePoint(buffer.codePointAt(idx))) {
             // the main or argument item starts with ether a letter or a digit
             handleMainOrArgumentItemString();
-        } else if (isOptPrefix()) {
+        } else if (isOptPrefix(c)) {
             // the opt item must start with opt prefix
             handleOptionItemString();
-        } else if (isArgumentQuote()) {
+        } else if (isArgumentQuote(c)) {
             // the argument item may follow with the argument quote
             handleArgumentItemString();
-        } else if (isPipeline()) {
-            handleCommandPipeline();
-        } else if (isCommandLinker()) {
-            handleCommandLinker();
+        } else if (isPipeline(c) || isCommandLinker(c)) {
+            handlePrefixIdentifier();
         } else {
-            throw new CommandSyntaxException("You have a syntax error near character " + (char) b + ", index: " + idx);
+            throw syntaxException();
         }
-
-        return tokens.poll();
     }
 
     /**
      * Handle main item or argument item which is not quoted by the argument quote.<br/>
      */
     protected void handleMainOrArgumentItemString() {
-        String itemString = getSimpleItemString();
-        tokens.add(new CommandToken(CommandTokenType.MAIN_OR_ARGUMENT, itemString));
+        int start = idx;
+        skipSimpleItemString();
+        addToken(CommandTokenType.MAIN_OR_ARGUMENT, start, idx - start);
     }
 
     protected void handleOptionItemString() {
-        CommandToken token = new CommandToken(CommandTokenType.PREFIX_IDENTIFIER, FixedLexicalItemValue.OPT_PREFIX.getValue());
-        tokens.add(token);
+        handlePrefixIdentifier();
 
-        boolean isAlias = false;
+        if (!isEnd() && isOptPrefix(buffer.charAt(idx))) {
+            handlePrefixIdentifier();
 
-        nextByte();
-        if (isOptPrefix()) {
-            tokens.add(token);
+            int start = idx;
+            skipSimpleItemString();
+            addToken(CommandTokenType.OPT, start, idx - start);
         } else {
-            retract();
-            isAlias = true;
-        }
-
-        nextByte();
-        String itemString = getSimpleItemString();
-
-        if (isAlias) {
-            byte[] aliases = itemString.getBytes(StandardCharsets.UTF_8);
-            for (byte alias : aliases) {
-                tokens.add(new CommandToken(CommandTokenType.OPT, String.valueOf((char) alias)));
+            int start = idx;
+            skipSimpleItemString();
+            // every code point is an alias
+            int i = start;
+            while (i < idx) {
+                int length = Character.charCount(buffer.codePointAt(i));
+                addToken(CommandTokenType.OPT, i, length);
+                i += length;
             }
-        } else {
-            tokens.add(new CommandToken(CommandTokenType.OPT, itemString));
         }
     }
 
     /**
-     * Handle the argument item quoted by the argument quote.
+     * Handle the argument item quoted by the argument quote. <br/>
+     * This will get the string till meeting an argument quote or the command is end. <br/>
+     * We add escape letter process to expand the content character type in quoted arguments.
      */
     protected void handleArgumentItemString() {
-        tokens.add(new CommandToken(CommandTokenType.PREFIX_IDENTIFIER, FixedLexicalItemValue.ARGUMENT_QUOTE.getValue()));
-        quoteCount++;
-
-        nextByte();
-
-        // If it's the right argument quote.
-        if (quoteCount % 2 != 1) {
-            if (isBlankSpace()) {
-                retract();
+        handlePrefixIdentifier();
+
+        int start = idx;
+        boolean escaped = false;
+        while (!isEnd()) {
+            char c = buffer.charAt(idx);
+            if (isEscapeIdentifier(c)) {
+                // the next code point is escaped
+                escaped = true;
+                idx++;
+                if (!isEnd()) {
+                    idx += Character.charCount(buffer.codePointAt(idx));
+                }
+            } else if (isArgumentQuote(c)) {
+                break;
             } else {
-                throw new CommandSyntaxException("You have a syntax error near character " + (char) b + ", index: " + idx);
+                idx++;
             }
-            return;
         }
 
+        int length = idx - start;
+        addToken(CommandTokenType.ARGUMENT, start, escaped ? length | ArgumentList.ESCAPED : length);
 
-        String itemString = getArgumentItemString();
-        tokens.add(new CommandToken(CommandTokenType.ARGUMENT, itemString));
-    }
+        // the right argument quote
+        if (!isEnd()) {
+            handlePrefixIdentifier();
 
-    protected void handleCommandPipeline() {
-        tokens.add(new CommandToken(CommandTokenType.PREFIX_IDENTIFIER, FixedLexicalItemValue.PIPELINE_IDENTIFIER.getValue()));
+            if (!isEnd() && !isBlankSpace(buffer.charAt(idx))) {
+                throw syntaxException();
+            }
+        }
     }
 
-    protected void handleCommandLinker() {
-        tokens.add(new CommandToken(CommandTokenType.PREFIX_IDENTIFIER, FixedLexicalItemValue.COMMAND_LINKER.getValue()));
+    /**
+     * Handle the single char prefix identifier at idx.
+     */
+    protected void handlePrefixIdentifier() {
+        addToken(CommandTokenType.PREFIX_IDENTIFIER, idx, 1);
+        idx++;
     }
 
     /**
-     * Set idx points to the nearest next no-blank byte.
+     * Add a token to the token buffer, the token count limit is checked first.
+     *
+     * @param type   token type
+     * @param offset offset of the token
+     * @param length length of the token, may have the ArgumentList.ESCAPED flag
      */
-    protected void ignoreBlankSpace() {
-        while (isBlankSpace()) {
-            b = buffer[++idx];
-        }
+    protected void addToken(CommandTokenType type, int offset, int length) {
+        limits.checkTokenCount(tokenBuffer.size(), offset);
+        tokenBuffer.add(type, offset, length);
     }
 
     /**
-     * Iterate idx to next byte.
+     * Set idx points to the nearest next no-blank char.
      */
-    protected void nextByte() {
-        b = buffer[++idx];
+    protected void ignoreBlankSpace() {
+        while (!isEnd() && isBlankSpace(buffer.charAt(idx))) {
+            idx++;
+        }
     }
 
     /**
      * The simple item means main item, opt item and not-quoted-argument item. <br/>
-     * The will get string till meeting a blank space or the command is end.
-     *
-     * @return item string
+     * The will skip the string till meeting a blank space or the command is end.
      */
-    protected String getSimpleItemString() {
-        while (!isBlankSpace() && !isEnd()) {
-            tokenBuilder.append((char) b);
-
-            nextByte();
+    protected void skipSimpleItemString() {
+        while (!isEnd() && !isBlankSpace(buffer.charAt(idx))) {
+            idx++;
         }
-
-        // process the last byte
-        if (isEnd() && (!isBlankSpace())) {
-            tokenBuilder.append((char) b);
-        } else {
-            retract();
-        }
-
-        return tokenBuilder.toString();
     }
 
     /**
-     * Get quoted argument item string. <br/>
-     * This will get the string till meeting an argument quote or the command is end. <br/>
-     * We add escape letter process to expand the content character type in quoted arguments.
+     * Create the syntax exception of the code point at idx.
      *
-     * @return item string
+     * @return CommandSyntaxException
      */
-    protected String getArgumentItemString() {
-        while ((!isArgumentQuote() || isArgumentQuote() && isPreEscapeIdentifier()) && !isEnd()) {
-            if (!isEscapeIdentifier()) {
-                tokenBuilder.append((char) b);
-                needEscape = true;
-            } else if (isEscapeIdentifier() && isPreEscapeIdentifier()) {
-                // If followed with another escape char, the follower has no escape function and should add to item string.
-                // That is the followed escape char is escaped by the former.
-                needEscape = false;
-                tokenBuilder.append((char)b);
-            }
-
-            nextByte();
-        }
-
-        if (isEnd() && (!isArgumentQuote() || isArgumentQuote() && isPreEscapeIdentifier())) {
-            tokenBuilder.append((char) b);
-        } else {
-            retract();
-        }
-
-        return tokenBuilder.toString();
-    }
-
-    protected boolean isLetter() {
-        return b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z';
+    protected CommandSyntaxException syntaxException() {
+        return new CommandSyntaxException("You have a syntax error near character "
+                + new String(Character.toChars(buffer.codePointAt(idx))) + ", index: " + idx);
     }
 
-    protected boolean isDigit() {
-        return b >= '0' && b <= '9';
+    protected boolean isLetterOrDigitCodePoint(int codePoint) {
+        return Character.isLetterOrDigit(codePoint);
     }
 
-    protected boolean isArgumentQuote() {
-        return b == '\'';
+    protected boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
     }
 
-    protected boolean isOptPrefix() {
-        return b == '-';
+    protected boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 
-    protected boolean isPipeline() {
-        return b == '|';
+    protected boolean isArgumentQuote(char c) {
+        return c == '\'';
     }
 
-    protected boolean isCommandLinker() {
-        return b == '&';
+    protected boolean isOptPrefix(char c) {
+        return c == '-';
     }
 
-    protected boolean isEscapeIdentifier() {
-        return b == '\\';
+    protected boolean isPipeline(char c) {
+        return c == '|';
     }
 
-    protected boolean isPreEscapeIdentifier() {
-        return buffer[idx - 1] == '\\' && needEscape;
+    protected boolean isCommandLinker(char c) {
+        return c == '&';
     }
 
-    protected boolean isBlankSpace() {
-        return b == ' ';
+    protected boolean isEscapeIdentifier(char c) {
+        return c == '\\';
     }
 
-    protected void retract() {
-        b = buffer[--idx];
+    protected boolean isBlankSpace(char c) {
+        return c == ' ';
     }
 
     protected boolean isEnd() {
-        return idx == buffer.length - 1;
+        return idx >= buffer.length();
     }
 }
@@ -0,0 +1,71 @@
+package com.riicarus.comandante.manage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * [FEATURE INFO]<br/>
+ * A command input waiting in the CommandInputHandler's queue, with the future of its execution results.<br/>
+ * The future is completed by the CommandRunner with the results of the command's analyzed executors in input order,
+ * or completed exceptionally if the command is rejected, dropped or fails.<br/>
+ * If nobody reads the results, the output CommandPipes of streaming pipelines are drained and logged by the CommandRunner,
+ * otherwise they are completed alive for the reader.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 14:05
+ * @since 3.1
+ */
+public class PendingCommand {
+    /**
+     * The command input string.
+     */
+    private final String command;
+    /**
+     * The future of the command's execution results.
+     */
+    private final CompletableFuture<List<Object>> result = new CompletableFuture<>();
+    /**
+     * The time when the command is received, from System.nanoTime(), used to measure its queue-wait latency.
+     */
+    private final long receivedTime = System.nanoTime();
+    /**
+     * If the output pipes of streaming pipelines are drained and logged by the CommandRunner.
+     */
+    private final boolean drainPipes;
+
+    public PendingCommand(String command) {
+        this(command, true);
+    }
+
+    /**
+     * Create a pending command.
+     *
+     * @param command    command input string
+     * @param drainPipes if the output pipes of streaming pipelines are drained and logged, false if the results are read by the caller
+     */
+    public PendingCommand(String command, boolean drainPipes) {
+        this.command = command;
+        this.drainPipes = drainPipes;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public CompletableFuture<List<Object>> getResult() {
+        return result;
+    }
+
+    public long getReceivedTime() {
+        return receivedTime;
+    }
+
+    public boolean isDrainPipes() {
+        return drainPipes;
+    }
+
+    @Override
+    public String toString() {
+        return command;
+    }
+}
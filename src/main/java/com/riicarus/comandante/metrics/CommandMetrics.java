@@ -0,0 +1,113 @@
+package com.riicarus.comandante.metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * [FEATURE INFO]<br/>
+ * The metrics registry of a CommandDispatcher.<br/>
+ * It records latencies of the command phases: lex, parse and queue-wait, the execute phase is recorded by every CommandExecutor's ExecutorMetrics.
+ * It also counts dispatched commands and errors by their kinds.<br/>
+ * A command found in the plan cache skips lex and parse, so it's not recorded in those phases.<br/>
+ * All recording methods are lock-free and safe for concurrent dispatching threads.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 21:24
+ * @since 3.1
+ */
+public class CommandMetrics {
+
+    private final LatencyHistogram lexLatency = new LatencyHistogram();
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+    private final LatencyHistogram queueWaitLatency = new LatencyHistogram();
+    private final ThroughputMeter throughput = new ThroughputMeter();
+    private final LongAdder syntaxErrors = new LongAdder();
+    private final LongAdder notFoundErrors = new LongAdder();
+    private final LongAdder executionErrors = new LongAdder();
+
+    public void recordLex(long nanos) {
+        lexLatency.record(nanos);
+    }
+
+    public void recordParse(long nanos) {
+        parseLatency.record(nanos);
+    }
+
+    /**
+     * Record the time a command waits from being put to the input queue till it starts to be dispatched.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void recordQueueWait(long nanos) {
+        queueWaitLatency.record(nanos);
+    }
+
+    /**
+     * Count a dispatched command, whether it succeeds or not.
+     */
+    public void markDispatched() {
+        throughput.mark();
+    }
+
+    public void markSyntaxError() {
+        syntaxErrors.increment();
+    }
+
+    public void markNotFoundError() {
+        notFoundErrors.increment();
+    }
+
+    public void markExecutionError() {
+        executionErrors.increment();
+    }
+
+    public LatencyHistogram getLexLatency() {
+        return lexLatency;
+    }
+
+    public LatencyHistogram getParseLatency() {
+        return parseLatency;
+    }
+
+    public LatencyHistogram getQueueWaitLatency() {
+        return queueWaitLatency;
+    }
+
+    public ThroughputMeter getThroughput() {
+        return throughput;
+    }
+
+    public long getSyntaxErrorCount() {
+        return syntaxErrors.sum();
+    }
+
+    public long getNotFoundErrorCount() {
+        return notFoundErrors.sum();
+    }
+
+    public long getExecutionErrorCount() {
+        return executionErrors.sum();
+    }
+
+    /**
+     * Take a snapshot of the metrics.
+     *
+     * @param executors metrics of executors, keyed by their command strings
+     * @return snapshot
+     */
+    public CommandMetricsSnapshot snapshot(Map<String, ExecutorMetrics> executors) {
+        return new CommandMetricsSnapshot(
+                lexLatency.snapshot(),
+                parseLatency.snapshot(),
+                queueWaitLatency.snapshot(),
+                throughput.getTotal(),
+                throughput.getRate(1),
+                throughput.getRate(ThroughputMeter.MAX_WINDOW_SECONDS),
+                throughput.getMeanRate(),
+                syntaxErrors.sum(),
+                notFoundErrors.sum(),
+                executionErrors.sum(),
+                executors
+        );
+    }
+}
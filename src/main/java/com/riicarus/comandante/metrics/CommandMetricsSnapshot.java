@@ -0,0 +1,183 @@
+package com.riicarus.comandante.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * [FEATURE INFO]<br/>
+ * An immutable snapshot of CommandMetrics and the metrics of executors.<br/>
+ * Latencies are in nanoseconds, toString() formats them in microseconds, which is the output of "comandante --stats".
+ *
+ * @author Riicarus
+ * @create 2026-10-17 21:30
+ * @since 3.1
+ */
+public class CommandMetricsSnapshot {
+
+    private final LatencyHistogram.Snapshot lexLatency;
+    private final LatencyHistogram.Snapshot parseLatency;
+    private final LatencyHistogram.Snapshot queueWaitLatency;
+    /**
+     * Execute latency of all executors.
+     */
+    private final LatencyHistogram.Snapshot executeLatency;
+    private final long dispatchedCount;
+    private final double lastSecondRate;
+    private final double lastMinuteRate;
+    private final double meanRate;
+    private final long syntaxErrorCount;
+    private final long notFoundErrorCount;
+    private final long executionErrorCount;
+    /**
+     * Snapshots of executors, keyed by their command strings.
+     */
+    private final Map<String, ExecutorSnapshot> executors;
+
+    CommandMetricsSnapshot(LatencyHistogram.Snapshot lexLatency, LatencyHistogram.Snapshot parseLatency, LatencyHistogram.Snapshot queueWaitLatency,
+                           long dispatchedCount, double lastSecondRate, double lastMinuteRate, double meanRate,
+                           long syntaxErrorCount, long notFoundErrorCount, long executionErrorCount,
+                           Map<String, ExecutorMetrics> executorMetrics) {
+        this.lexLatency = lexLatency;
+        this.parseLatency = parseLatency;
+        this.queueWaitLatency = queueWaitLatency;
+        this.dispatchedCount = dispatchedCount;
+        this.lastSecondRate = lastSecondRate;
+        this.lastMinuteRate = lastMinuteRate;
+        this.meanRate = meanRate;
+        this.syntaxErrorCount = syntaxErrorCount;
+        this.notFoundErrorCount = notFoundErrorCount;
+        this.executionErrorCount = executionErrorCount;
+
+        Map<String, ExecutorSnapshot> executors = new LinkedHashMap<>();
+        LatencyHistogram.Snapshot executeLatency = LatencyHistogram.Snapshot.EMPTY;
+        for (Map.Entry<String, ExecutorMetrics> entry : executorMetrics.entrySet()) {
+            ExecutorSnapshot executor = new ExecutorSnapshot(entry.getValue());
+            executors.put(entry.getKey(), executor);
+            if (executor.getExecuteLatency().getCount() > 0) {
+                executeLatency = executeLatency.merge(executor.getExecuteLatency());
+            }
+        }
+        this.executors = Collections.unmodifiableMap(executors);
+        this.executeLatency = executeLatency;
+    }
+
+    public LatencyHistogram.Snapshot getLexLatency() {
+        return lexLatency;
+    }
+
+    public LatencyHistogram.Snapshot getParseLatency() {
+        return parseLatency;
+    }
+
+    public LatencyHistogram.Snapshot getQueueWaitLatency() {
+        return queueWaitLatency;
+    }
+
+    public LatencyHistogram.Snapshot getExecuteLatency() {
+        return executeLatency;
+    }
+
+    public long getDispatchedCount() {
+        return dispatchedCount;
+    }
+
+    /**
+     * Get the count of commands dispatched in the last complete second.
+     *
+     * @return commands per second
+     */
+    public double getLastSecondRate() {
+        return lastSecondRate;
+    }
+
+    /**
+     * Get the average rate of dispatched commands in the last minute.
+     *
+     * @return commands per second
+     */
+    public double getLastMinuteRate() {
+        return lastMinuteRate;
+    }
+
+    /**
+     * Get the average rate of dispatched commands since the dispatcher is created.
+     *
+     * @return commands per second
+     */
+    public double getMeanRate() {
+        return meanRate;
+    }
+
+    public long getSyntaxErrorCount() {
+        return syntaxErrorCount;
+    }
+
+    public long getNotFoundErrorCount() {
+        return notFoundErrorCount;
+    }
+
+    public long getExecutionErrorCount() {
+        return executionErrorCount;
+    }
+
+    public Map<String, ExecutorSnapshot> getExecutors() {
+        return executors;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("dispatched: ").append(dispatchedCount)
+                .append(", rate(1s/1m/mean): ")
+                .append(String.format("%.1f/%.1f/%.1f", lastSecondRate, lastMinuteRate, meanRate))
+                .append("/s\n");
+        builder.append("errors: syntax=").append(syntaxErrorCount)
+                .append(", not_found=").append(notFoundErrorCount)
+                .append(", execution=").append(executionErrorCount)
+                .append("\n");
+        builder.append("lex: ").append(lexLatency).append("\n");
+        builder.append("parse: ").append(parseLatency).append("\n");
+        builder.append("queue_wait: ").append(queueWaitLatency).append("\n");
+        builder.append("execute: ").append(executeLatency);
+        for (Map.Entry<String, ExecutorSnapshot> entry : executors.entrySet()) {
+            ExecutorSnapshot executor = entry.getValue();
+            if (executor.getUseCount() == 0) {
+                continue;
+            }
+            builder.append("\n").append(entry.getKey())
+                    .append("\t\terrors=").append(executor.getErrorCount())
+                    .append(", ").append(executor.getExecuteLatency());
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * An immutable snapshot of ExecutorMetrics.
+     */
+    public static class ExecutorSnapshot {
+
+        private final long useCount;
+        private final long errorCount;
+        private final LatencyHistogram.Snapshot executeLatency;
+
+        ExecutorSnapshot(ExecutorMetrics metrics) {
+            this.executeLatency = metrics.getExecuteLatency();
+            this.useCount = metrics.getUseCount();
+            this.errorCount = metrics.getErrorCount();
+        }
+
+        public long getUseCount() {
+            return useCount;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public LatencyHistogram.Snapshot getExecuteLatency() {
+            return executeLatency;
+        }
+    }
+}
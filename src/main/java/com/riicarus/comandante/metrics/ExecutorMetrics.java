@@ -0,0 +1,87 @@
+package com.riicarus.comandante.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Metrics of one CommandExecutor: use count, error count and execute latency.<br/>
+ * The latency histogram is created when the executor is executed for the first time,
+ * so registering many executors that are never used costs little memory.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 21:20
+ * @since 3.1
+ */
+public class ExecutorMetrics {
+
+    private final LongAdder useCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private volatile LatencyHistogram executeLatency;
+
+    /**
+     * Record one execution.
+     *
+     * @param nanos  execute latency in nanoseconds
+     * @param failed if the execution throws an exception
+     */
+    public void record(long nanos, boolean failed) {
+        useCount.increment();
+        if (failed) {
+            errorCount.increment();
+        }
+        latency().record(nanos);
+    }
+
+    private LatencyHistogram latency() {
+        LatencyHistogram histogram = executeLatency;
+        if (histogram == null) {
+            synchronized (this) {
+                histogram = executeLatency;
+                if (histogram == null) {
+                    histogram = new LatencyHistogram();
+                    executeLatency = histogram;
+                }
+            }
+        }
+
+        return histogram;
+    }
+
+    public long getUseCount() {
+        return useCount.sum();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    /**
+     * Get the cumulative execute time.
+     *
+     * @return time in nanoseconds
+     */
+    public long getTotalTime() {
+        LatencyHistogram histogram = executeLatency;
+        return histogram == null ? 0 : histogram.getSum();
+    }
+
+    /**
+     * Get the max execute time.
+     *
+     * @return time in nanoseconds
+     */
+    public long getMaxTime() {
+        LatencyHistogram histogram = executeLatency;
+        return histogram == null ? 0 : histogram.getMax();
+    }
+
+    /**
+     * Get the snapshot of the execute latency.
+     *
+     * @return snapshot, empty if the executor is never executed
+     */
+    public LatencyHistogram.Snapshot getExecuteLatency() {
+        LatencyHistogram histogram = executeLatency;
+        return histogram == null ? LatencyHistogram.Snapshot.EMPTY : histogram.snapshot();
+    }
+}
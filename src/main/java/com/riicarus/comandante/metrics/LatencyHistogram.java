@@ -0,0 +1,209 @@
+package com.riicarus.comandante.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * [FEATURE INFO]<br/>
+ * A lock-free log-linear histogram of latencies in nanoseconds.<br/>
+ * Every power of two range is split into 8 linear buckets, so a recorded value is kept with a relative error under 12.5%,
+ * and the whole range of long takes less than 500 buckets.<br/>
+ * Recording is an atomic increment of the bucket plus striped adds of the count and the sum, it never blocks.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 21:10
+ * @since 3.1
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+    private static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos latency in nanoseconds, negative value is recorded as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        buckets.getAndIncrement(bucketIndex(nanos));
+        count.increment();
+        sum.add(nanos);
+
+        long currentMax = max.get();
+        while (nanos > currentMax && !max.compareAndSet(currentMax, nanos)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Take a snapshot of the histogram, it's not atomic with concurrent recording,
+     * but every value recorded before it's called is included.
+     *
+     * @return snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+
+        return new Snapshot(counts, total, sum.sum(), max.get());
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & SUB_BUCKET_MASK;
+
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    /**
+     * Get the max value of a bucket.
+     *
+     * @param index bucket index
+     * @return max value of the bucket, inclusive
+     */
+    static long bucketMaxValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT + (index & SUB_BUCKET_MASK)) << shift;
+
+        return lowest + ((1L << shift) - 1);
+    }
+
+    /**
+     * An immutable snapshot of a LatencyHistogram.
+     */
+    public static class Snapshot {
+
+        public static final Snapshot EMPTY = new Snapshot(new long[BUCKET_COUNT], 0, 0, 0);
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Get the value at the given percentile, it's the max value of the bucket where the percentile falls in,
+         * and never greater than the max recorded value.
+         *
+         * @param percentile percentile in [0, 100]
+         * @return value in nanoseconds, 0 if nothing is recorded
+         */
+        public long getPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketMaxValue(i), max);
+                }
+            }
+
+            return max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        public long getP50() {
+            return getPercentile(50);
+        }
+
+        public long getP99() {
+            return getPercentile(99);
+        }
+
+        public long getP999() {
+            return getPercentile(99.9);
+        }
+
+        /**
+         * Merge two snapshots.
+         *
+         * @param other the other snapshot
+         * @return merged snapshot
+         */
+        public Snapshot merge(Snapshot other) {
+            long[] merged = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                merged[i] = counts[i] + other.counts[i];
+            }
+
+            return new Snapshot(merged, count + other.count, sum + other.sum, Math.max(max, other.max));
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count +
+                    ", mean=" + formatMicros((long) getMean()) +
+                    ", p50=" + formatMicros(getP50()) +
+                    ", p99=" + formatMicros(getP99()) +
+                    ", p999=" + formatMicros(getP999()) +
+                    ", max=" + formatMicros(max);
+        }
+
+        private static String formatMicros(long nanos) {
+            long tenths = nanos / (TimeUnit.MICROSECONDS.toNanos(1) / 10);
+            return tenths / 10 + "." + tenths % 10 + "us";
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.riicarus.comandante.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Activity of the threads running commands: which threads are busy and what commands they are running.<br/>
+ * A thread calls begin() before running a command and end() after it, both are one map operation on the thread's own key.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 21:50
+ * @since 3.1
+ */
+public class RunnerActivity {
+
+    /**
+     * Commands being run, keyed by their running threads.
+     */
+    private final Map<Thread, String> currentCommands = new ConcurrentHashMap<>();
+    private final LongAdder completedCount = new LongAdder();
+
+    /**
+     * Mark the current thread busy with the command.
+     *
+     * @param command command input string
+     */
+    public void begin(String command) {
+        currentCommands.put(Thread.currentThread(), command);
+    }
+
+    /**
+     * Mark the current thread idle.
+     */
+    public void end() {
+        currentCommands.remove(Thread.currentThread());
+        completedCount.increment();
+    }
+
+    public int getBusyCount() {
+        return currentCommands.size();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    /**
+     * Get commands being run, every element is like "{thread name}: {command}".
+     *
+     * @return current commands
+     */
+    public List<String> getCurrentCommands() {
+        List<String> commands = new ArrayList<>();
+        for (Map.Entry<Thread, String> entry : currentCommands.entrySet()) {
+            commands.add(entry.getKey().getName() + ": " + entry.getValue());
+        }
+
+        return commands;
+    }
+}
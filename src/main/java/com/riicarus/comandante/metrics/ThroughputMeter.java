@@ -0,0 +1,81 @@
+package com.riicarus.comandante.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Counts events and their rate per second.<br/>
+ * The total count is a striped counter, the recent rate is counted in a ring of per-second slots,
+ * a slot is reset by CAS on its second stamp when a new second comes, so the recent rate is approximate under contention.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 21:16
+ * @since 3.1
+ */
+public class ThroughputMeter {
+
+    /**
+     * Count of seconds kept in the ring, it's a power of two.
+     */
+    private static final int SLOT_COUNT = 64;
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+    /**
+     * Max window of the recent rate.
+     */
+    public static final int MAX_WINDOW_SECONDS = SLOT_COUNT - 1;
+
+    private final LongAdder total = new LongAdder();
+    private final AtomicLongArray seconds = new AtomicLongArray(SLOT_COUNT);
+    private final AtomicLongArray counts = new AtomicLongArray(SLOT_COUNT);
+    private final long startTime = System.currentTimeMillis();
+
+    /**
+     * Count an event.
+     */
+    public void mark() {
+        total.increment();
+
+        long second = System.currentTimeMillis() / 1000;
+        int idx = (int) second & SLOT_MASK;
+        long stamp = seconds.get(idx);
+        if (stamp != second && seconds.compareAndSet(idx, stamp, second)) {
+            counts.set(idx, 0);
+        }
+        counts.getAndIncrement(idx);
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Get the average rate of the last complete seconds, the current second is not included.
+     *
+     * @param windowSeconds count of seconds, in [1, MAX_WINDOW_SECONDS]
+     * @return events per second
+     */
+    public double getRate(int windowSeconds) {
+        int window = Math.max(1, Math.min(windowSeconds, MAX_WINDOW_SECONDS));
+        long current = System.currentTimeMillis() / 1000;
+        long sum = 0;
+        for (long second = current - window; second < current; second++) {
+            int idx = (int) second & SLOT_MASK;
+            if (seconds.get(idx) == second) {
+                sum += counts.get(idx);
+            }
+        }
+
+        return (double) sum / window;
+    }
+
+    /**
+     * Get the average rate since the meter is created.
+     *
+     * @return events per second
+     */
+    public double getMeanRate() {
+        long elapsed = System.currentTimeMillis() - startTime;
+        return elapsed <= 0 ? 0 : getTotal() * 1000.0 / elapsed;
+    }
+}
@@ -0,0 +1,360 @@
+package com.riicarus.comandante.processor;
+
+import com.riicarus.comandante.annotation.Arg;
+import com.riicarus.comandante.annotation.Command;
+import com.riicarus.comandante.annotation.Opt;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Annotation processor which generates the registration code of @Command methods at compile time.<br/>
+ * For every type declaring @Command methods, a class named "{type}_CommandRegistrar" is generated in the same package, it has:<br/>
+ * 1. register(CommandRegister) or register(CommandRegister, {type} target) if there're instance methods,
+ * which registers all commands by CommandBuilder in one batch;<br/>
+ * 2. one Executable which calls the methods directly by a switch on the command's index, without reflection.<br/>
+ * Parameters of int, long, double, boolean, enum and Path types are registered as typed arguments,
+ * so they are converted and validated when analyzing and read from ArgumentList without boxing.<br/>
+ * <br/>
+ * The processor is found by javac through META-INF/services when Comandante is on the compile classpath,
+ * Comandante itself is compiled with -proc:none.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 23:20
+ * @since 3.1
+ */
+public class CommandProcessor extends AbstractProcessor {
+
+    public static final String REGISTRAR_SUFFIX = "_CommandRegistrar";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new HashSet<>(Arrays.asList(Command.class.getCanonicalName(), Opt.class.getCanonicalName(), Arg.class.getCanonicalName()));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Opt.class)) {
+            if (element.getAnnotation(Command.class) == null) {
+                error("@Opt must be used with @Command.", element);
+            }
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(Arg.class)) {
+            if (element.getEnclosingElement().getAnnotation(Command.class) == null) {
+                error("@Arg must be used on parameters of @Command methods.", element);
+            }
+        }
+
+        // group methods by their declaring types, in declaration order
+        Map<TypeElement, List<ExecutableElement>> methodsByType = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Command.class)) {
+            ExecutableElement method = (ExecutableElement) element;
+            if (check(method)) {
+                methodsByType.computeIfAbsent((TypeElement) method.getEnclosingElement(), type -> new ArrayList<>()).add(method);
+            }
+        }
+
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : methodsByType.entrySet()) {
+            try {
+                generate(entry.getKey(), entry.getValue());
+            } catch (IOException e) {
+                error("Failed to generate command registrar: " + e.getMessage(), entry.getKey());
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Check if the method can be called by the generated code and its parameters can be converted from arguments.
+     *
+     * @param method method annotated by @Command
+     * @return is valid
+     */
+    private boolean check(ExecutableElement method) {
+        boolean valid = true;
+        if (method.getModifiers().contains(Modifier.PRIVATE)) {
+            error("@Command method can not be private.", method);
+            valid = false;
+        }
+        for (Element type = method.getEnclosingElement(); type.getKind() != ElementKind.PACKAGE; type = type.getEnclosingElement()) {
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                error("Type declaring @Command methods can not be private.", type);
+                valid = false;
+            }
+        }
+        if (mainItems(method.getAnnotation(Command.class)).length == 0) {
+            error("@Command must have at least one main item.", method);
+            valid = false;
+        }
+        Opt opt = method.getAnnotation(Opt.class);
+        if (opt != null && opt.value().trim().isEmpty()) {
+            error("@Opt must have a name.", method);
+            valid = false;
+        }
+        for (VariableElement parameter : method.getParameters()) {
+            if (parameter.getAnnotation(Arg.class) == null) {
+                error("Parameter of @Command method must be annotated by @Arg.", parameter);
+                valid = false;
+            } else if (converter(parameter.asType(), 0) == null) {
+                error("@Arg parameter must be String, Path, an enum or a primitive type except char, get: " + parameter.asType(), parameter);
+                valid = false;
+            }
+        }
+
+        return valid;
+    }
+
+    private void generate(TypeElement type, List<ExecutableElement> methods) throws IOException {
+        String packageName = ((PackageElement) packageOf(type)).getQualifiedName().toString();
+        String simpleName = registrarName(type);
+        String targetType = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+        boolean hasTarget = false;
+        for (ExecutableElement method : methods) {
+            hasTarget |= !method.getModifiers().contains(Modifier.STATIC);
+        }
+
+        StringBuilder code = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("/**\n")
+                .append(" * Command registrar of ").append(type.getQualifiedName()).append(", generated by CommandProcessor, do not edit.\n")
+                .append(" */\n")
+                .append("public final class ").append(simpleName).append(" {\n\n")
+                .append("    private ").append(simpleName).append("() {\n")
+                .append("    }\n\n");
+
+        // register method
+        code.append("    /**\n")
+                .append("     * Register all commands of ").append(type.getSimpleName()).append(" as one batch.\n")
+                .append("     *\n")
+                .append("     * @param register command register\n");
+        if (hasTarget) {
+            code.append("     * @param target   the instance to call the commands' methods\n");
+        }
+        code.append("     */\n")
+                .append("    public static void register(final com.riicarus.comandante.manage.CommandRegister register");
+        if (hasTarget) {
+            code.append(", final ").append(targetType).append(" target");
+        }
+        code.append(") {\n")
+                .append("        register.batch(() -> {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            Command command = method.getAnnotation(Command.class);
+            code.append("            register.builder()");
+            for (String main : mainItems(command)) {
+                code.append(".main(").append(literal(main)).append(")");
+            }
+            Opt opt = method.getAnnotation(Opt.class);
+            if (opt != null) {
+                code.append(".opt(").append(literal(opt.value().trim())).append(", ").append(literal(opt.alias().trim())).append(")");
+            }
+            for (VariableElement parameter : method.getParameters()) {
+                code.append(".arg(").append(literal(parameter.getAnnotation(Arg.class).value()));
+                String argumentType = argumentType(parameter.asType());
+                if (argumentType != null) {
+                    code.append(", ").append(argumentType);
+                }
+                code.append(")");
+            }
+            code.append("\n                    .executor(new Invoker(").append(i).append(hasTarget ? ", target" : "").append("), ")
+                    .append(literal(command.usage())).append(");\n");
+        }
+        code.append("        });\n")
+                .append("    }\n\n");
+
+        // invoker
+        code.append("    private static final class Invoker implements com.riicarus.comandante.executor.Executable {\n\n")
+                .append("        private final int index;\n");
+        if (hasTarget) {
+            code.append("        private final ").append(targetType).append(" target;\n");
+        }
+        code.append("\n        Invoker(int index").append(hasTarget ? ", " + targetType + " target" : "").append(") {\n")
+                .append("            this.index = index;\n");
+        if (hasTarget) {
+            code.append("            this.target = target;\n");
+        }
+        code.append("        }\n\n")
+                .append("        @Override\n")
+                .append("        @SuppressWarnings(\"unchecked\")\n")
+                .append("        public Object execute(Object args, Object pipedArgs) throws Exception {\n")
+                .append("            com.riicarus.comandante.executor.ArgumentList arguments = args instanceof com.riicarus.comandante.executor.ArgumentList\n")
+                .append("                    ? (com.riicarus.comandante.executor.ArgumentList) args\n")
+                .append("                    : com.riicarus.comandante.executor.ArgumentList.of((java.util.List<String>) args);\n")
+                .append("            switch (index) {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            StringBuilder call = new StringBuilder();
+            call.append(method.getModifiers().contains(Modifier.STATIC) ? targetType : "target")
+                    .append(".").append(method.getSimpleName()).append("(");
+            List<? extends VariableElement> parameters = method.getParameters();
+            for (int j = 0; j < parameters.size(); j++) {
+                if (j > 0) {
+                    call.append(", ");
+                }
+                call.append(converter(parameters.get(j).asType(), j));
+            }
+            call.append(")");
+
+            code.append("                case ").append(i).append(":\n");
+            if (method.getReturnType().getKind() == TypeKind.VOID) {
+                code.append("                    ").append(call).append(";\n")
+                        .append("                    return null;\n");
+            } else {
+                code.append("                    return ").append(call).append(";\n");
+            }
+        }
+        code.append("                default:\n")
+                .append("                    throw new IllegalStateException(\"Unknown command index: \" + index);\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, methods.toArray(new Element[0]));
+        try (Writer writer = file.openWriter()) {
+            writer.write(code.toString());
+        }
+    }
+
+    /**
+     * Get the expression of the argument type of a parameter.
+     *
+     * @param type parameter's type
+     * @return expression, null if the argument is registered as string
+     */
+    private String argumentType(TypeMirror type) {
+        String types = "com.riicarus.comandante.executor.CommandArgumentType";
+        switch (type.getKind()) {
+            case INT:
+                return types + ".INT";
+            case LONG:
+                return types + ".LONG";
+            case DOUBLE:
+                return types + ".DOUBLE";
+            case BOOLEAN:
+                return types + ".BOOLEAN";
+            case DECLARED:
+                if (isEnum(type)) {
+                    return types + ".enumOf(" + processingEnv.getTypeUtils().erasure(type) + ".class)";
+                } else if (isType(type, Path.class)) {
+                    return types + ".PATH";
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Get the expression reading an argument as the parameter's type.
+     *
+     * @param type  parameter's type
+     * @param index index of the argument
+     * @return expression, null if the type is not supported
+     */
+    private String converter(TypeMirror type, int index) {
+        String argument = "arguments.get(" + index + ")";
+        switch (type.getKind()) {
+            case INT:
+                return "arguments.getInt(" + index + ")";
+            case LONG:
+                return "arguments.getLong(" + index + ")";
+            case DOUBLE:
+                return "arguments.getDouble(" + index + ")";
+            case BOOLEAN:
+                return "arguments.getBoolean(" + index + ")";
+            case FLOAT:
+                return "Float.parseFloat(" + argument + ")";
+            case SHORT:
+                return "Short.parseShort(" + argument + ")";
+            case BYTE:
+                return "Byte.parseByte(" + argument + ")";
+            case DECLARED:
+                if (isType(type, String.class)) {
+                    return argument;
+                } else if (isEnum(type) || isType(type, Path.class)) {
+                    return "arguments.<" + processingEnv.getTypeUtils().erasure(type) + ">getValue(" + index + ")";
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private boolean isType(TypeMirror type, Class<?> clazz) {
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(clazz.getCanonicalName());
+        return element != null && processingEnv.getTypeUtils().isSameType(type, element.asType());
+    }
+
+    private boolean isEnum(TypeMirror type) {
+        return processingEnv.getTypeUtils().asElement(type).getKind() == ElementKind.ENUM;
+    }
+
+    private static String[] mainItems(Command command) {
+        String value = command.value().trim();
+        return value.isEmpty() ? new String[0] : value.split("\\s+");
+    }
+
+    /**
+     * Get the registrar's name, the names of enclosing types are joined by '_', like "Outer_Inner_CommandRegistrar".
+     *
+     * @param type type declaring @Command methods
+     * @return simple name of the registrar
+     */
+    private static String registrarName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element enclosing = type.getEnclosingElement(); enclosing.getKind() != ElementKind.PACKAGE; enclosing = enclosing.getEnclosingElement()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+        }
+
+        return name.append(REGISTRAR_SUFFIX).toString();
+    }
+
+    private static Element packageOf(Element element) {
+        while (element.getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+
+        return element;
+    }
+
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,34 @@
+import com.riicarus.comandante.annotation.Arg;
+import com.riicarus.comandante.annotation.Command;
+import com.riicarus.comandante.annotation.Opt;
+
+/**
+ * [FEATURE INFO]<br/>
+ * Commands defined by annotations, registered by the generated AnnotatedDemoCommand_CommandRegistrar.
+ *
+ * @author Riicarus
+ * @create 2026-10-17 23:40
+ * @since 3.1
+ */
+public class AnnotatedDemoCommand {
+
+    @Command(value = "calc add", usage = "add two numbers")
+    public static long add(@Arg("a") long a, @Arg("b") long b) {
+        return a + b;
+    }
+
+    @Command(value = "calc repeat", usage = "repeat a message")
+    public static String repeat(@Arg("message") String message, @Arg("times") int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(message);
+        }
+        return builder.toString();
+    }
+
+    @Command("calc")
+    @Opt(value = "precise", alias = "p")
+    public static void precise() {
+        System.out.println("precise mode");
+    }
+}
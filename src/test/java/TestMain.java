@@ -19,6 +19,7 @@ public class TestMain {
 
     public static void main(String[] args) throws FileNotFoundException {
         DemoCommand.defineCommand();
+        AnnotatedDemoCommand_CommandRegistrar.register(CommandLauncher.register());
 
         CommandDispatcher dispatcher = CommandLauncher.COMANDANTE.getCommandDispatcher();
         // dispatcher.dispatch("app ec9ho 'hello' --color red & app echo world");